@@ -0,0 +1,65 @@
+package GameService.core.benchmark;
+
+import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.model.Game;
+import GameService.core.domein.model.GameStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mapping of {@link Game} entities to {@link GameDto} and JSON serialization of large result lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameDtoBenchmark {
+
+    @Param({"1000", "100000"})
+    public int seedSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Game> games;
+
+    private List<GameDto> gameDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        games = new ArrayList<>();
+        for (int i = 0; i < seedSize; i++) {
+            Game game = new Game();
+            game.setId((long) i);
+            game.setName("game" + (i % 100));
+            game.setStatus(GameStatus.values()[i % GameStatus.values().length]);
+            games.add(game);
+        }
+
+        gameDtos = mapToDto();
+    }
+
+    @Benchmark
+    public List<GameDto> mapToDto() {
+
+        return games.stream().map(GameDto::new).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeToJson() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(gameDtos);
+    }
+}
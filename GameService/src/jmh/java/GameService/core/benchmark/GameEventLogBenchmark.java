@@ -0,0 +1,105 @@
+package GameService.core.benchmark;
+
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.eventlog.GameEventLog;
+import GameService.core.domein.model.GameEventType;
+import GameService.core.domein.model.GameStatus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Opening a {@link GameEventLog} of {@code eventCount} updates spread over {@code gameCount} games,
+ * which replays every segment, or only the events after a snapshot taken once all were written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GameEventLogBenchmark {
+
+    @Param({"1000000"})
+    public int eventCount;
+
+    @Param({"100000"})
+    public int gameCount;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("game-events-benchmark");
+        GameEventLog log = open();
+        List<CompletableFuture<Long>> appended = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < eventCount; i++) {
+            appended.add(log.append(GameEventDto.builder()
+                    .type(GameEventType.UPDATED)
+                    .gameId((long) (i % gameCount))
+                    .name("game" + (i % 100))
+                    .status(GameStatus.values()[i % GameStatus.values().length])
+                    .version((long) i)
+                    .occurredAt(now)
+                    .build()));
+        }
+        appended.forEach(CompletableFuture::join);
+
+        if (snapshot) {
+            log.snapshot();
+        }
+        log.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+
+        GameEventLog log = open();
+        try {
+            return log.getDurableOffset();
+        }
+        finally {
+            log.close();
+        }
+    }
+
+    private GameEventLog open() throws IOException {
+
+        GameEventLog log = new GameEventLog(true, directory.toString(), DataSize.ofMegabytes(64), 1000, Duration.ofSeconds(1), 1);
+        log.open();
+
+        return log;
+    }
+}
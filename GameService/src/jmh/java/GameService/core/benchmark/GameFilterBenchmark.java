@@ -0,0 +1,131 @@
+package GameService.core.benchmark;
+
+import static GameService.core.config.ApplicationUrls.API_VERSION;
+import static GameService.core.config.ApplicationUrls.port;
+
+import GameService.core.GameServiceApplication;
+import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.service.GameService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link GameService#getGamesFiltered} and {@link GameService#getAllGames} against the embedded H2 database seeded with {@code seedSize} games.
+ * PlayerService is replaced by a local stub that answers every player name with every tenth game id,
+ * so the player name variants include the remote call and the id filtering step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameFilterBenchmark {
+
+    private static final String[] STATUSES = {"NEW", "FINISHED", "DROPED"};
+
+    @Param({"1000", "100000"})
+    public int seedSize;
+
+    private HttpServer playerService;
+
+    private ConfigurableApplicationContext context;
+
+    private GameService gameService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        playerService = startPlayerServiceStub();
+
+        context = new SpringApplicationBuilder(GameServiceApplication.class)
+                .properties("server.port=0",
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN",
+                            "game.registration.dispatch-initial-delay-ms=3600000",
+                            "game.player-replica.enabled=false")
+                .run();
+
+        List<Object[]> games = new ArrayList<>();
+        for (int i = 0; i < seedSize; i++) {
+            games.add(new Object[]{"game" + (i % 100), STATUSES[i % STATUSES.length]});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO game (name, status) VALUES (?, ?)", games);
+
+        gameService = context.getBean(GameService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        context.close();
+        playerService.stop(0);
+    }
+
+    @Benchmark
+    public List<GameDto> allGames() {
+
+        return gameService.getAllGames();
+    }
+
+    @Benchmark
+    public List<GameDto> filterByNameAndStatus() {
+
+        return gameService.getGamesFiltered("game42", "NEW", "");
+    }
+
+    @Benchmark
+    public List<GameDto> filterByStatus() {
+
+        return gameService.getGamesFiltered("", "FINISHED", "");
+    }
+
+    @Benchmark
+    public List<GameDto> filterByPlayerName() {
+
+        return gameService.getGamesFiltered("", "", "player");
+    }
+
+    @Benchmark
+    public List<GameDto> filterByNameAndPlayerName() {
+
+        return gameService.getGamesFiltered("game42", "", "player");
+    }
+
+    private HttpServer startPlayerServiceStub() throws IOException {
+
+        List<Long> gameIds = new ArrayList<>();
+        for (long id = 1; id <= seedSize; id += 10) {
+            gameIds.add(id);
+        }
+        byte[] body = new ObjectMapper().writeValueAsBytes(gameIds);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(Integer.parseInt(port)), 0);
+        server.createContext(API_VERSION + "player/gameIds", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+
+        return server;
+    }
+}
@@ -0,0 +1,120 @@
+package GameService.core.benchmark;
+
+import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.model.GameStatus;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JSON against CBOR for the payloads exchanged with PlayerService: game id lists
+ * ({@code game/exists}, {@code player/gameIds}) and game lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"1000", "100000"})
+    public int seedSize;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    private JavaType gameIdListType;
+
+    private JavaType gameDtoListType;
+
+    private List<Long> gameIds;
+
+    private List<GameDto> gameDtos;
+
+    private byte[] gameIdsJson;
+
+    private byte[] gameIdsCbor;
+
+    private byte[] gameDtosJson;
+
+    private byte[] gameDtosCbor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        gameIdListType = jsonMapper.getTypeFactory().constructCollectionType(List.class, Long.class);
+        gameDtoListType = jsonMapper.getTypeFactory().constructCollectionType(List.class, GameDto.class);
+
+        gameIds = new ArrayList<>();
+        gameDtos = new ArrayList<>();
+        for (int i = 0; i < seedSize; i++) {
+            gameIds.add(1_000_000L + i * 3L);
+            gameDtos.add(new GameDto("game" + (i % 100), GameStatus.values()[i % GameStatus.values().length]));
+        }
+
+        gameIdsJson = jsonMapper.writeValueAsBytes(gameIds);
+        gameIdsCbor = cborMapper.writeValueAsBytes(gameIds);
+        gameDtosJson = jsonMapper.writeValueAsBytes(gameDtos);
+        gameDtosCbor = cborMapper.writeValueAsBytes(gameDtos);
+    }
+
+    @Benchmark
+    public byte[] writeGameIdsJson() throws IOException {
+
+        return jsonMapper.writeValueAsBytes(gameIds);
+    }
+
+    @Benchmark
+    public byte[] writeGameIdsCbor() throws IOException {
+
+        return cborMapper.writeValueAsBytes(gameIds);
+    }
+
+    @Benchmark
+    public List<Long> readGameIdsJson() throws IOException {
+
+        return jsonMapper.readValue(gameIdsJson, gameIdListType);
+    }
+
+    @Benchmark
+    public List<Long> readGameIdsCbor() throws IOException {
+
+        return cborMapper.readValue(gameIdsCbor, gameIdListType);
+    }
+
+    @Benchmark
+    public byte[] writeGamesJson() throws IOException {
+
+        return jsonMapper.writeValueAsBytes(gameDtos);
+    }
+
+    @Benchmark
+    public byte[] writeGamesCbor() throws IOException {
+
+        return cborMapper.writeValueAsBytes(gameDtos);
+    }
+
+    @Benchmark
+    public List<GameDto> readGamesJson() throws IOException {
+
+        return jsonMapper.readValue(gameDtosJson, gameDtoListType);
+    }
+
+    @Benchmark
+    public List<GameDto> readGamesCbor() throws IOException {
+
+        return cborMapper.readValue(gameDtosCbor, gameDtoListType);
+    }
+}
@@ -2,12 +2,20 @@ package GameService.core;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GameServiceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(GameServiceApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(GameServiceApplication.class, args);
+
+		// The cdsArchive task starts the service once to record the classes loaded at startup
+		if (Boolean.getBoolean("cds.training")) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
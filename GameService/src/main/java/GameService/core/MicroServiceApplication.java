@@ -1,5 +1,8 @@
 package GameService.core;
 
+import GameService.core.config.DeadlineClientHttpRequestFactory;
+import GameService.core.config.HttpClientProperties;
+import GameService.core.config.PreferCborInterceptor;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,8 +12,12 @@ import org.springframework.web.client.RestTemplate;
 public class MicroServiceApplication {
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        // Do any additional configuration here
-        return builder.build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, DeadlineClientHttpRequestFactory clientHttpRequestFactory,
+            HttpClientProperties httpClientProperties) {
+        // Pooled client with timeouts, see HttpClientConfig
+        RestTemplateBuilder pooledBuilder = builder.requestFactory(() -> clientHttpRequestFactory);
+
+        return httpClientProperties.isPreferCbor() ?
+                pooledBuilder.additionalInterceptors(new PreferCborInterceptor()).build() : pooledBuilder.build();
     }
 }
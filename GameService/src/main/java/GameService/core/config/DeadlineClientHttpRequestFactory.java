@@ -0,0 +1,176 @@
+package GameService.core.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Request factory that aborts every request still running after the total deadline,
+ * so a peer that keeps trickling bytes cannot hold a thread past the read timeout.
+ *
+ * The deadline starts when the request is executed and is cancelled when its response is closed,
+ * so a completed request is not kept reachable by the scheduler until the deadline passes.
+ */
+public class DeadlineClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory implements DisposableBean {
+
+    // Hands the request created by super.createRequest to createRequest on the same thread
+    private static final ThreadLocal<HttpUriRequest> createdRequest = new ThreadLocal<>();
+
+    private final Duration totalTimeout;
+
+    private final ScheduledThreadPoolExecutor deadlineScheduler;
+
+    public DeadlineClientHttpRequestFactory(HttpClient httpClient, Duration totalTimeout) {
+
+        super(httpClient);
+        this.totalTimeout = totalTimeout;
+        this.deadlineScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "http-client-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Cancelled deadlines leave the queue at once instead of when they would have run
+        this.deadlineScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+
+        try {
+            ClientHttpRequest request = super.createRequest(uri, httpMethod);
+
+            return totalTimeout.isZero() ? request : new DeadlineClientHttpRequest(request, createdRequest.get());
+        }
+        finally {
+            createdRequest.remove();
+        }
+    }
+
+    @Override
+    protected void postProcessHttpRequest(HttpUriRequest request) {
+
+        createdRequest.set(request);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+
+        deadlineScheduler.shutdownNow();
+        super.destroy();
+    }
+
+    private class DeadlineClientHttpRequest implements ClientHttpRequest {
+
+        private final ClientHttpRequest request;
+
+        private final HttpUriRequest httpRequest;
+
+        private DeadlineClientHttpRequest(ClientHttpRequest request, HttpUriRequest httpRequest) {
+
+            this.request = request;
+            this.httpRequest = httpRequest;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+
+            ScheduledFuture<?> deadline = deadlineScheduler.schedule(httpRequest::abort, totalTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            try {
+                return new DeadlineClientHttpResponse(request.execute(), deadline);
+            }
+            catch (IOException | RuntimeException e) {
+                deadline.cancel(false);
+                throw e;
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+
+            return request.getBody();
+        }
+
+        @Override
+        public String getMethodValue() {
+
+            return request.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+
+            return request.getURI();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+
+            return request.getHeaders();
+        }
+    }
+
+    private static class DeadlineClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+
+        private final ScheduledFuture<?> deadline;
+
+        private DeadlineClientHttpResponse(ClientHttpResponse response, ScheduledFuture<?> deadline) {
+
+            this.response = response;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+
+            return response.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+
+            return response.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+
+            return response.getHeaders();
+        }
+
+        @Override
+        public void close() {
+
+            deadline.cancel(false);
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package GameService.core.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled, keep-alive HTTP client with connect, pool, read and total deadlines,
+ * used by the {@code RestTemplate} that talks to PlayerService.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(HttpClientProperties properties) {
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager, HttpClientProperties properties) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : properties.getKeepAlive().toMillis();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public DeadlineClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient, HttpClientProperties properties) {
+
+        return new DeadlineClientHttpRequestFactory(httpClient, properties.getTotalTimeout());
+    }
+
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+
+        return registry -> {
+            Gauge.builder("http.client.pool.leased", connectionManager, manager -> manager.getTotalStats().getLeased())
+                    .description("Connections currently in use")
+                    .register(registry);
+            Gauge.builder("http.client.pool.available", connectionManager, manager -> manager.getTotalStats().getAvailable())
+                    .description("Idle connections kept alive in the pool")
+                    .register(registry);
+            Gauge.builder("http.client.pool.pending", connectionManager, manager -> manager.getTotalStats().getPending())
+                    .description("Requests waiting for a free connection")
+                    .register(registry);
+            Gauge.builder("http.client.pool.max", connectionManager, manager -> manager.getTotalStats().getMax())
+                    .description("Maximum number of pooled connections")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package GameService.core.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Pool and timeout settings of the HTTP client used for calls to PlayerService.
+ */
+@Data
+@ConfigurationProperties(prefix = "http.client")
+public class HttpClientProperties {
+
+    /**
+     * Maximum number of pooled connections across all routes.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Maximum number of pooled connections to a single host and port.
+     */
+    private int maxPerRoute = 50;
+
+    /**
+     * Time allowed to establish a TCP connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time allowed to wait for a free connection from the pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Maximum inactivity between two data packets of a response.
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Hard deadline for a whole exchange, after which the request is aborted. Zero disables it.
+     */
+    private Duration totalTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long an idle connection is kept alive when the server does not send a Keep-Alive header.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections older than this are closed by a background evictor.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Pooled connections idle for longer than this are validated before being reused.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Ask the peer for CBOR responses and send request bodies as CBOR. Disable while the peer
+     * cannot read CBOR request bodies yet.
+     */
+    private boolean preferCbor = true;
+}
@@ -0,0 +1,40 @@
+package GameService.core.config;
+
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the auto-configured Liquibase update with one that is skipped while the schema is
+ * unchanged, enabled with {@code game.liquibase.skip-unchanged=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.liquibase.skip-unchanged", havingValue = "true")
+@EnableConfigurationProperties(LiquibaseProperties.class)
+public class LiquibaseChecksumConfig {
+
+    @Bean
+    public ChecksumSpringLiquibase liquibase(DataSource dataSource, LiquibaseProperties properties) {
+
+        ChecksumSpringLiquibase liquibase = new ChecksumSpringLiquibase(true);
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(properties.getChangeLog());
+        liquibase.setContexts(properties.getContexts());
+        liquibase.setDefaultSchema(properties.getDefaultSchema());
+        liquibase.setLiquibaseSchema(properties.getLiquibaseSchema());
+        liquibase.setLiquibaseTablespace(properties.getLiquibaseTablespace());
+        liquibase.setDatabaseChangeLogTable(properties.getDatabaseChangeLogTable());
+        liquibase.setDatabaseChangeLogLockTable(properties.getDatabaseChangeLogLockTable());
+        liquibase.setDropFirst(properties.isDropFirst());
+        liquibase.setShouldRun(properties.isEnabled());
+        liquibase.setLabels(properties.getLabels());
+        liquibase.setChangeLogParameters(properties.getParameters());
+        liquibase.setTestRollbackOnUpdate(properties.isTestRollbackOnUpdate());
+        liquibase.setTag(properties.getTag());
+
+        return liquibase;
+    }
+}
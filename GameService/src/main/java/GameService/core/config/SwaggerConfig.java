@@ -1,5 +1,6 @@
 package GameService.core.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
@@ -15,6 +16,7 @@ import springfox.documentation.spring.web.plugins.Docket;
 public class SwaggerConfig {
 
     @Bean
+    @ConditionalOnProperty(name = "game.swagger.enabled", havingValue = "true", matchIfMissing = true)
     public Docket api() {
         return new Docket(DocumentationType.SWAGGER_2)
                 .select()
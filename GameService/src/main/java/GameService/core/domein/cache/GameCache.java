@@ -0,0 +1,66 @@
+package GameService.core.domein.cache;
+
+import GameService.core.domein.dto.VersionedGameDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of games by id, placed in front of {@code GameRepository.findById}. Each
+ * entry keeps the row version it was read from, which is the entity tag of the cached body.
+ *
+ * Entries are limited by size and time to live. Missing games are not cached, and every
+ * write to the game table must refresh or invalidate the affected entry after it is committed.
+ * Hit, miss and eviction counters are exported as the {@code cache.*} meters of cache {@code game}.
+ */
+@Component
+public class GameCache {
+
+    private final Cache<Long, VersionedGameDto> cache;
+
+    public GameCache(@Value("${game.cache.maximum-size:10000}") long maximumSize,
+            @Value("${game.cache.expire-after-write:30s}") Duration expireAfterWrite, MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "game");
+    }
+
+    public VersionedGameDto get(Long id, Function<Long, VersionedGameDto> loader) {
+
+        return cache.get(id, loader);
+    }
+
+    public void put(Long id, VersionedGameDto gameDto) {
+
+        cache.put(id, gameDto);
+    }
+
+    public void invalidate(Long id) {
+
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss, load and eviction counters since startup.
+     */
+    public CacheStats stats() {
+
+        return cache.stats();
+    }
+}
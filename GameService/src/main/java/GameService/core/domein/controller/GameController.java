@@ -2,15 +2,26 @@ package GameService.core.domein.controller;
 
 import static GameService.core.config.ApplicationUrls.REST_API_V1_GAME;
 
+import GameService.core.domein.dto.GameChangesDto;
 import GameService.core.domein.dto.GameCreateDto;
 import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.dto.GameEventSnapshotDto;
+import GameService.core.domein.dto.GamePageDto;
+import GameService.core.domein.dto.GameRegistrationStatusDto;
+import GameService.core.domein.dto.GameStatsDto;
+import GameService.core.domein.dto.VersionedGameDto;
 import GameService.core.domein.service.GameService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
+import java.net.URI;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +32,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @Api(tags = "game")
@@ -40,55 +53,240 @@ public class GameController {
             tags = {"game"})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Players retrieved", response = GameDto.class),
+            @ApiResponse(code = 304, message = "Games not modified since the given ETag"),
             @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
             @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
             @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
             @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
     })
     @GetMapping
-    public ResponseEntity<List<GameDto>> getAllGames() {
+    public ResponseEntity<List<GameDto>> getAllGames(WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(gameService.getGamesETag())) {
+            return null;
+        }
 
         List<GameDto> gameDtos = gameService.getAllGames();
 
         return new ResponseEntity<List<GameDto>>(gameDtos, HttpStatus.OK);
     }
 
+    @ApiOperation(
+            value = "Get page of games.",
+            notes = "Return games with id greater than afterId, ordered by id, and the cursor of the next page.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Games retrieved", response = GamePageDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/page")
+    public ResponseEntity<GamePageDto> getGamesPage(@RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+
+        return new ResponseEntity<>(gameService.getGamesPage(afterId, size), HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Stream all games.",
+            notes = "Return all games as newline delimited JSON.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Games retrieved", response = GameDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllGames() {
+
+        StreamingResponseBody body = gameService::streamAllGames;
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @ApiOperation(
+            value = "Get games changed since a watermark.",
+            notes = "Return games created, updated or deleted after since, a nextSince token or an ISO date-time, and the token to continue from. Omit since for a full sync.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Changes retrieved", response = GameChangesDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/changes")
+    public ResponseEntity<GameChangesDto> getGameChanges(@RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "1000") int limit) {
+
+        try {
+            return new ResponseEntity<>(gameService.getGameChanges(since, limit), HttpStatus.OK);
+        }
+        catch (DateTimeParseException e)
+        {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @ApiOperation(
+            value = "Get game events.",
+            notes = "Return creates, updates and deletes of games logged after the given offset, in log order.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Events retrieved", response = GameEventDto.class),
+            @ApiResponse(code = 404, message = "Game event log is disabled"),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/events")
+    public ResponseEntity<List<GameEventDto>> getGameEvents(@RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "1000") int limit) throws IOException {
+
+        List<GameEventDto> events = gameService.getGameEvents(after, limit);
+
+        if(events != null)
+        {
+            return new ResponseEntity<>(events, HttpStatus.OK);
+        }
+        else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @ApiOperation(
+            value = "Get game event snapshot.",
+            notes = "Return the last event of every game that is not deleted, with the offset to read later events from.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Snapshot retrieved", response = GameEventSnapshotDto.class),
+            @ApiResponse(code = 404, message = "Game event log is disabled"),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/events/snapshot")
+    public ResponseEntity<GameEventSnapshotDto> getGameEventSnapshot() {
+
+        GameEventSnapshotDto snapshot = gameService.getGameEventSnapshot();
+
+        if(snapshot != null)
+        {
+            return new ResponseEntity<>(snapshot, HttpStatus.OK);
+        }
+        else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @ApiOperation(
+            value = "Get game statistics.",
+            notes = "Return the number of games in total and per status.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Statistics retrieved", response = GameStatsDto.class),
+            @ApiResponse(code = 304, message = "Games not modified since the given ETag"),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/stats")
+    public ResponseEntity<GameStatsDto> getGameStats(WebRequest webRequest) {
+
+        if (webRequest.checkNotModified(gameService.getGamesETag())) {
+            return null;
+        }
+
+        return new ResponseEntity<>(gameService.getGameStats(), HttpStatus.OK);
+    }
+
     @ApiOperation(
             value = "Get game by id.",
             notes = "Return game.",
             tags = {"game"})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Game retrieved", response = GameDto.class),
+            @ApiResponse(code = 304, message = "Game not modified since the given ETag"),
             @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
             @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
             @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
             @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
     })
     @GetMapping(value = "/{id}")
-    public ResponseEntity<GameDto> getGame(@PathVariable Long id) {
+    public ResponseEntity<GameDto> getGame(@PathVariable Long id, WebRequest webRequest) {
+
+        VersionedGameDto gameDto = gameService.getGameById(id);
+
+        if (gameDto == null) {
+            return new ResponseEntity<>(null, HttpStatus.NOT_FOUND);
+        }
 
-        GameDto gameDto = gameService.getGameById(id);
+        if (webRequest.checkNotModified(gameService.getGameETag(gameDto))) {
+            return null;
+        }
 
-        return gameDto == null ?
-                new ResponseEntity<>(null, HttpStatus.NOT_FOUND) : new ResponseEntity<>(gameDto, HttpStatus.OK);
+        return new ResponseEntity<>(gameDto.getGame(), HttpStatus.OK);
     }
 
+    @ApiOperation(
+            value = "Check which games exist.",
+            notes = "Return the subset of the given game ids that exist.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Existing ids retrieved", response = Long.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @PostMapping(value = "/exists")
+    public ResponseEntity<List<Long>> getExistingGameIds(@RequestBody List<Long> gameIds)
+    {
+        return new ResponseEntity<>(gameService.getExistingGameIds(gameIds), HttpStatus.OK);
+    }
 
     @ApiOperation(
             value = "Create game.",
-            notes = "Create game in DB.",
+            notes = "Create game in DB and queue registration of its player in PlayerService.",
             tags = {"game"})
     @ApiResponses(value = {
-            @ApiResponse(code = 201, message = "Game created", response = GameDto.class),
+            @ApiResponse(code = 202, message = "Game created, player registration pending", response = GameRegistrationStatusDto.class),
             @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
             @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
             @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
             @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
     })
     @PostMapping
-    public ResponseEntity<HttpStatus> createGame(@RequestBody GameCreateDto gameDto)
+    public ResponseEntity<GameRegistrationStatusDto> createGame(@RequestBody GameCreateDto gameDto)
     {
-        return new ResponseEntity<>(gameService.createGame(gameDto));
+        GameRegistrationStatusDto registrationStatusDto = gameService.createGame(gameDto);
+
+        return ResponseEntity.accepted()
+                .location(URI.create(REST_API_V1_GAME + "/" + registrationStatusDto.getGameId() + "/registration"))
+                .body(registrationStatusDto);
+    }
+
+    @ApiOperation(
+            value = "Get player registration status of game.",
+            notes = "Return status of the player registration queued when the game was created.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Registration status retrieved", response = GameRegistrationStatusDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/{id}/registration")
+    public ResponseEntity<GameRegistrationStatusDto> getGameRegistrationStatus(@PathVariable Long id) {
+
+        GameRegistrationStatusDto registrationStatusDto = gameService.getGameRegistrationStatus(id);
+
+        return registrationStatusDto == null ?
+                new ResponseEntity<>(null, HttpStatus.NOT_FOUND) : new ResponseEntity<>(registrationStatusDto, HttpStatus.OK);
     }
 
     @ApiOperation(
@@ -136,16 +334,60 @@ public class GameController {
             tags = {"game"})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Games retrieved", response = GameDto.class),
+            @ApiResponse(code = 304, message = "Games not modified since the given ETag"),
+            @ApiResponse(code = 503, message = "PlayerService unavailable while filtering by player name", response = Error.class),
             @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
             @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
             @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
             @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
     })
     @GetMapping(value = "/filter")
-    public ResponseEntity<List<GameDto>> getGameByFilter(@RequestParam String gameName, @RequestParam String status, @RequestParam String playerName) {
+    public ResponseEntity<List<GameDto>> getGameByFilter(@RequestParam String gameName, @RequestParam String status, @RequestParam String playerName,
+            WebRequest webRequest) {
+
+        String eTag = gameService.getGamesFilteredETag(playerName);
+
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
         List<GameDto> gameDtos = gameService.getGamesFiltered(gameName, status, playerName);
 
-        return new ResponseEntity<>(gameDtos, HttpStatus.OK);
+        return gameDtos == null ?
+                new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE) : new ResponseEntity<>(gameDtos, HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Stream games filtered by game name, status and player name.",
+            notes = "Return games as newline delimited JSON.",
+            tags = {"game"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Games retrieved", response = GameDto.class),
+            @ApiResponse(code = 503, message = "PlayerService unavailable while filtering by player name", response = Error.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this game info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this game info", response = Error.class)
+    })
+    @GetMapping(value = "/filter/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamGameByFilter(@RequestParam String gameName, @RequestParam String status, @RequestParam String playerName) {
+
+        StreamingResponseBody body;
+
+        if (playerName.isEmpty()) {
+            body = outputStream -> gameService.streamGamesFiltered(gameName, status, outputStream);
+        }
+        else {
+            // PlayerService is asked before the response starts, so it can still answer 503
+            List<Long> gameIds = gameService.getGameIdsFiltered(gameName, status, playerName);
+
+            if (gameIds == null) {
+                return new ResponseEntity<>(null, HttpStatus.SERVICE_UNAVAILABLE);
+            }
+
+            body = outputStream -> gameService.streamGamesFiltered(gameIds, gameName, status, outputStream);
+        }
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
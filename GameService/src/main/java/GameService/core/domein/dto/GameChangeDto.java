@@ -0,0 +1,51 @@
+package GameService.core.domein.dto;
+
+import GameService.core.domein.model.Game;
+import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.GameTombstone;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Current state of a changed game, or its tombstone when {@code deleted} is set, in which case
+ * only the id, version and {@code updatedAt}, the time of deletion, are present.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GameChangeDto {
+
+    private Long id;
+
+    private String name;
+
+    private GameStatus status;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private boolean deleted;
+
+    private Long version;
+
+    public GameChangeDto(Game game){
+        id = game.getId();
+        name = game.getName();
+        status = game.getStatus();
+        createdAt = game.getCreatedAt();
+        updatedAt = game.getUpdatedAt();
+        version = game.getVersion();
+    }
+
+    public GameChangeDto(GameTombstone tombstone){
+        id = tombstone.getGameId();
+        updatedAt = tombstone.getDeletedAt();
+        deleted = true;
+        version = tombstone.getVersion();
+    }
+}
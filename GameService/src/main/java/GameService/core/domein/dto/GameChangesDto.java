@@ -0,0 +1,22 @@
+package GameService.core.domein.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GameChangesDto {
+
+    private List<GameChangeDto> changes;
+
+    /**
+     * Token to pass as {@code since} for the following changes. Fewer changes than the limit
+     * means the caller is up to date with this token.
+     */
+    private Long nextSince;
+}
@@ -0,0 +1,55 @@
+package GameService.core.domein.dto;
+
+import GameService.core.domein.model.Game;
+import GameService.core.domein.model.GameEventType;
+import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.GameTombstone;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One create, update or delete of a game, at {@code offset} in the game event log. A delete only
+ * carries the game id, version and {@code occurredAt}, the time of deletion.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GameEventDto {
+
+    private Long offset;
+
+    private GameEventType type;
+
+    private Long gameId;
+
+    private String name;
+
+    private GameStatus status;
+
+    /**
+     * Value of {@code game_version} taken by the write, orders the events of one game.
+     */
+    private Long version;
+
+    private LocalDateTime occurredAt;
+
+    public GameEventDto(GameEventType type, Game game){
+        this.type = type;
+        gameId = game.getId();
+        name = game.getName();
+        status = game.getStatus();
+        version = game.getVersion();
+        occurredAt = game.getUpdatedAt();
+    }
+
+    public GameEventDto(GameTombstone tombstone){
+        type = GameEventType.DELETED;
+        gameId = tombstone.getGameId();
+        version = tombstone.getVersion();
+        occurredAt = tombstone.getDeletedAt();
+    }
+}
@@ -0,0 +1,26 @@
+package GameService.core.domein.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GameEventSnapshotDto {
+
+    /**
+     * Every event up to this offset is reflected in the snapshot, so it is the {@code after} to
+     * read events from. Later events may be reflected too; an event whose version is not above the
+     * game's version in the snapshot is already applied.
+     */
+    private Long offset;
+
+    /**
+     * Last event of every game that is not deleted.
+     */
+    private List<GameEventDto> games;
+}
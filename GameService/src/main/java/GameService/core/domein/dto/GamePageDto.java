@@ -0,0 +1,21 @@
+package GameService.core.domein.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GamePageDto {
+
+    private List<GameDto> games;
+
+    /**
+     * Id to pass as {@code afterId} for the next page, {@code null} when this is the last page.
+     */
+    private Long nextCursor;
+}
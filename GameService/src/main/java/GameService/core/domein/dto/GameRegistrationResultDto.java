@@ -0,0 +1,27 @@
+package GameService.core.domein.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one pair of a {@code POST player/registration/batch} call, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameRegistrationResultDto {
+
+    /**
+     * Status PlayerService answers for a pair it rejects, every other status means the pair is stored.
+     */
+    public static final String INVALID = "INVALID";
+
+    private long index;
+
+    private String name;
+
+    private Long gameId;
+
+    private String status;
+}
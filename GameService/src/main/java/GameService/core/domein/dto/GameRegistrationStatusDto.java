@@ -0,0 +1,31 @@
+package GameService.core.domein.dto;
+
+import GameService.core.domein.model.GameRegistrationOutbox;
+import GameService.core.domein.model.RegistrationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GameRegistrationStatusDto {
+
+    private Long gameId;
+
+    private String playerName;
+
+    private RegistrationStatus status;
+
+    private int attempts;
+
+    public GameRegistrationStatusDto(GameRegistrationOutbox outbox){
+        gameId = outbox.getGameId();
+        playerName = outbox.getPlayerName();
+        status = outbox.getStatus();
+        attempts = outbox.getAttempts();
+    }
+
+}
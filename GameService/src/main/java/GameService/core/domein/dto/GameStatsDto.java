@@ -0,0 +1,19 @@
+package GameService.core.domein.dto;
+
+import GameService.core.domein.model.GameStatus;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GameStatsDto {
+
+    private long total;
+
+    private Map<GameStatus, Long> byStatus;
+}
@@ -0,0 +1,27 @@
+package GameService.core.domein.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerChangeDto {
+
+    /**
+     * Response headers of {@code GET player/changes} with the epoch and last sequence of the shard's feed.
+     */
+    public static final String EPOCH_HEADER = "Player-Change-Epoch";
+
+    public static final String LAST_SEQUENCE_HEADER = "Player-Change-Last-Sequence";
+
+    private Long sequence;
+
+    private String name;
+
+    private Long gameId;
+
+    private boolean registered;
+
+}
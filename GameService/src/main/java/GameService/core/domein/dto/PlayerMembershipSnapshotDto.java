@@ -0,0 +1,33 @@
+package GameService.core.domein.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerMembershipSnapshotDto {
+
+    private Long sequence;
+
+    /**
+     * Sequence of every PlayerService shard's change feed, absent before PlayerService was sharded.
+     */
+    private List<Long> sequences;
+
+    /**
+     * Epoch of every PlayerService shard's change feed, a new epoch means the feed restarted.
+     * Absent before PlayerService had epochs.
+     */
+    private List<String> epochs;
+
+    private List<GameRegistrationDto> players;
+
+    public PlayerMembershipSnapshotDto(Long sequence, List<GameRegistrationDto> players) {
+
+        this.sequence = sequence;
+        this.players = players;
+    }
+}
@@ -0,0 +1,26 @@
+package GameService.core.domein.dto;
+
+import GameService.core.domein.model.Game;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A game together with the {@code game_version} of the row it was read from, so the entity tag of
+ * a served game always matches its body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedGameDto {
+
+    private GameDto game;
+
+    private long version;
+
+    public VersionedGameDto(Game game) {
+
+        this.game = new GameDto(game);
+        this.version = game.getVersion();
+    }
+}
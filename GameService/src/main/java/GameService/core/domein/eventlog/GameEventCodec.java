@@ -0,0 +1,161 @@
+package GameService.core.domein.eventlog;
+
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.model.GameEventType;
+import GameService.core.domein.model.GameStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Binary record of a {@link GameEventDto} in segment and snapshot files: body length and CRC32 of
+ * the body, then offset, game id, version, time, type, status and name. Enums are stored by ordinal.
+ */
+final class GameEventCodec {
+
+    static final int HEADER_SIZE = 8;
+
+    static final int INCOMPLETE = -1;
+
+    static final int CORRUPT = -2;
+
+    private static final int FIXED_BODY_SIZE = 40;
+
+    private static final int NULL_NAME = 0xFFFF;
+
+    static final int MAX_RECORD_SIZE = HEADER_SIZE + FIXED_BODY_SIZE + NULL_NAME - 1;
+
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private static final byte[] NO_NAME = new byte[0];
+
+    private static final GameEventType[] TYPES = GameEventType.values();
+
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    private GameEventCodec() {
+    }
+
+    static byte[] encodeName(String name) {
+
+        if (name == null) {
+            return NO_NAME;
+        }
+
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length >= NULL_NAME) {
+            throw new IllegalArgumentException("Game name of " + bytes.length + " bytes does not fit an event record");
+        }
+
+        return bytes;
+    }
+
+    static int recordSize(byte[] name) {
+
+        return HEADER_SIZE + FIXED_BODY_SIZE + name.length;
+    }
+
+    /**
+     * Writes the event at the buffer position, which must have {@link #recordSize} bytes left.
+     */
+    static void encode(GameEventDto event, byte[] name, ByteBuffer buffer, CRC32 crc) {
+
+        int start = buffer.position();
+        LocalDateTime occurredAt = event.getOccurredAt();
+
+        buffer.position(start + HEADER_SIZE);
+        buffer.putLong(event.getOffset())
+                .putLong(event.getGameId())
+                .putLong(event.getVersion())
+                .putLong(occurredAt == null ? NULL_TIME : occurredAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(occurredAt == null ? 0 : occurredAt.getNano())
+                .put((byte) event.getType().ordinal())
+                .put(event.getStatus() == null ? -1 : (byte) event.getStatus().ordinal())
+                .putShort((short) (event.getName() == null ? NULL_NAME : name.length))
+                .put(name);
+
+        int end = buffer.position();
+        buffer.putInt(start, end - start - HEADER_SIZE);
+        buffer.putInt(start + 4, checksum(buffer, start + HEADER_SIZE, end, crc));
+    }
+
+    /**
+     * Verifies the record at the buffer position without moving it. Returns the record size,
+     * {@link #INCOMPLETE} when the buffer ends inside the record, or {@link #CORRUPT}.
+     */
+    static int check(ByteBuffer buffer, CRC32 crc) {
+
+        int start = buffer.position();
+
+        if (buffer.remaining() < HEADER_SIZE) {
+            return INCOMPLETE;
+        }
+
+        int length = buffer.getInt(start);
+
+        if (length < FIXED_BODY_SIZE || length > MAX_RECORD_SIZE - HEADER_SIZE) {
+            return CORRUPT;
+        }
+        if (buffer.remaining() < HEADER_SIZE + length) {
+            return INCOMPLETE;
+        }
+        if (buffer.getInt(start + 4) != checksum(buffer, start + HEADER_SIZE, start + HEADER_SIZE + length, crc)) {
+            return CORRUPT;
+        }
+
+        return HEADER_SIZE + length;
+    }
+
+    /**
+     * Offset of the checked record at the buffer position.
+     */
+    static long offset(ByteBuffer buffer) {
+
+        return buffer.getLong(buffer.position() + HEADER_SIZE);
+    }
+
+    /**
+     * Reads the checked record at the buffer position and moves past it.
+     */
+    static GameEventDto decode(ByteBuffer buffer) {
+
+        buffer.position(buffer.position() + HEADER_SIZE);
+
+        GameEventDto event = new GameEventDto();
+        event.setOffset(buffer.getLong());
+        event.setGameId(buffer.getLong());
+        event.setVersion(buffer.getLong());
+
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        event.setOccurredAt(seconds == NULL_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+        event.setType(TYPES[buffer.get()]);
+
+        byte status = buffer.get();
+        event.setStatus(status < 0 ? null : STATUSES[status]);
+
+        int nameLength = Short.toUnsignedInt(buffer.getShort());
+
+        if (nameLength != NULL_NAME) {
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+            event.setName(new String(name, StandardCharsets.UTF_8));
+        }
+
+        return event;
+    }
+
+    private static int checksum(ByteBuffer buffer, int from, int to, CRC32 crc) {
+
+        ByteBuffer body = buffer.duplicate();
+        body.limit(to).position(from);
+
+        crc.reset();
+        crc.update(body);
+
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,685 @@
+package GameService.core.domein.eventlog;
+
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.dto.GameEventSnapshotDto;
+import GameService.core.domein.model.GameEventType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Append-only history of every create, update and delete of a game, in segment files under
+ * {@code game.event-log.directory}. The database stays the source of truth, the log records what it committed.
+ *
+ * A transaction reserves the position of its event while it still holds the version lock, and fills
+ * it in once it commits, so the log is in version order across all games. One writer thread takes every
+ * event queued while the previous batch was being synced and writes them with a single {@code force}, so
+ * concurrent writers share one disk sync (group commit). Offsets start at 1 and readers only see synced events.
+ *
+ * The last event of every game is kept in memory and written to a snapshot once
+ * {@code game.event-log.snapshot-min-events} events followed the previous one. On startup the newest
+ * snapshot is loaded and only the events after it are applied, then {@code GameEventLogReconciler}
+ * appends what the database committed without reaching the log. Disabled with
+ * {@code game.event-log.enabled=false}, which is the default.
+ */
+@Component
+public class GameEventLog {
+
+    private static final String LOCK_FILE = "log.lock";
+
+    private static final Pattern SNAPSHOT_FILE_NAME = Pattern.compile("snapshot-\\d{20}\\.snap");
+
+    private static final int SNAPSHOT_MAGIC = 0x47455631;
+
+    private static final int SNAPSHOT_HEADER_SIZE = 16;
+
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private static final PendingEvent STOP = new PendingEvent(CompletableFuture.completedFuture(null));
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final long segmentSize;
+
+    private final int maxBatchSize;
+
+    private final Duration appendTimeout;
+
+    private final long snapshotMinEvents;
+
+    private final BlockingQueue<PendingEvent> queue = new LinkedBlockingQueue<>();
+
+    private final ConcurrentSkipListMap<Long, GameEventSegment> segments = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, GameEventDto> lastEvents = new ConcurrentHashMap<>();
+
+    private FileChannel lockChannel;
+
+    private FileLock lock;
+
+    private Thread writer;
+
+    // Touched only by the writer thread once the log is open
+    private long nextOffset;
+
+    private volatile long durableOffset;
+
+    private volatile long snapshotOffset;
+
+    private volatile long lastVersion = -1L;
+
+    private volatile boolean open;
+
+    public GameEventLog(@Value("${game.event-log.enabled:false}") boolean enabled,
+            @Value("${game.event-log.directory:data/game-events}") String directory,
+            @Value("${game.event-log.segment-size:64MB}") DataSize segmentSize,
+            @Value("${game.event-log.max-batch-size:1000}") int maxBatchSize,
+            @Value("${game.event-log.append-timeout:10s}") Duration appendTimeout,
+            @Value("${game.event-log.snapshot-min-events:100000}") long snapshotMinEvents) {
+
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize.toBytes();
+        this.maxBatchSize = maxBatchSize;
+        this.appendTimeout = appendTimeout;
+        this.snapshotMinEvents = snapshotMinEvents;
+    }
+
+    /**
+     * Locks the directory against a second process, loads the newest snapshot, replays the segments
+     * after it and starts the writer thread.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lock = lockChannel.tryLock();
+
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Game event log " + directory + " is used by another process");
+        }
+
+        snapshotOffset = loadSnapshot();
+        nextOffset = replaySegments(snapshotOffset);
+        durableOffset = nextOffset - 1;
+
+        writer = new Thread(this::write, "game-event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        open = true;
+
+        logger.debug("GameEventLog: replayed {} events after snapshot at offset {}", durableOffset - snapshotOffset, snapshotOffset);
+    }
+
+    public boolean isOpen() {
+
+        return open;
+    }
+
+    /**
+     * Offset of the last event on disk, 0 when the log is empty.
+     */
+    public long getDurableOffset() {
+
+        return durableOffset;
+    }
+
+    /**
+     * Reserves the next position in the log for the event built by {@code event}, fills it in once the
+     * current transaction commits and drops it on rollback. Must be called after
+     * {@code GameRepository.incrementVersion}, whose lock keeps the reservations in version order.
+     *
+     * The event is built after the commit, when the timestamps set on flush are known. The caller does not
+     * wait for the disk, so the connection is released at once. The writer waits for a reserved event as
+     * long as its transaction runs, which holds the version lock and so holds back every other write as well.
+     * A failed append is not reported to the caller, whose write is committed already; the next startup logs
+     * the game's state.
+     */
+    public void appendAfterCommit(Supplier<GameEventDto> event) {
+
+        if (!open) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(CompletableFuture.completedFuture(event.get()));
+            return;
+        }
+
+        CompletableFuture<GameEventDto> reserved = new CompletableFuture<>();
+        enqueue(reserved);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                try {
+                    reserved.complete(event.get());
+                }
+                catch (RuntimeException e) {
+
+                    logger.warn("GameEventLog: event not built", e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+
+                // Releases the position on rollback, or when building the event failed
+                reserved.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Queues the event for the writer thread. Completes with the event's offset once it is on disk.
+     */
+    public CompletableFuture<Long> append(GameEventDto event) {
+
+        return queue(CompletableFuture.completedFuture(event)).result;
+    }
+
+    /**
+     * Returns up to {@code limit} events after the given offset, in log order.
+     */
+    public List<GameEventDto> read(long after, int limit) throws IOException {
+
+        List<GameEventDto> events = new ArrayList<>();
+
+        if (!open || after >= durableOffset || segments.isEmpty()) {
+            return events;
+        }
+
+        Long from = segments.floorKey(after + 1);
+
+        for (GameEventSegment segment : segments.tailMap(from == null ? segments.firstKey() : from).values()) {
+            segment.read(after, limit, events);
+
+            if (events.size() >= limit) {
+                break;
+            }
+        }
+
+        return events;
+    }
+
+    /**
+     * Highest version logged, -1 when the log is empty. The log is in version order, so every write
+     * with a version up to it is logged.
+     */
+    public long getLastVersion() {
+
+        return lastVersion;
+    }
+
+    /**
+     * Last event logged for the game, a delete once it is deleted, or null.
+     */
+    public GameEventDto getLastEvent(Long gameId) {
+
+        return lastEvents.get(gameId);
+    }
+
+    public Collection<GameEventDto> getLastEvents() {
+
+        return Collections.unmodifiableCollection(lastEvents.values());
+    }
+
+    /**
+     * The last event of every game that is not deleted. The offset is read first, so events
+     * applied while the games are collected are delivered again to a reader starting from it.
+     */
+    public GameEventSnapshotDto getSnapshot() {
+
+        long offset = durableOffset;
+        List<GameEventDto> games = lastEvents.values().stream()
+                .filter(event -> event.getType() != GameEventType.DELETED)
+                .sorted(Comparator.comparing(GameEventDto::getGameId))
+                .collect(Collectors.toList());
+
+        return new GameEventSnapshotDto(offset, games);
+    }
+
+    @Scheduled(initialDelayString = "${game.event-log.snapshot-delay-ms:600000}",
+               fixedDelayString = "${game.event-log.snapshot-delay-ms:600000}")
+    public synchronized void snapshot() {
+
+        long offset = durableOffset;
+
+        if (!open || offset - snapshotOffset < snapshotMinEvents) {
+            return;
+        }
+
+        try {
+            writeSnapshot(offset);
+            snapshotOffset = offset;
+            deleteOldSnapshots();
+
+            logger.debug("GameEventLog: snapshot successfully done at offset {}", offset);
+        }
+        catch (IOException e) {
+
+            logger.warn("GameEventLog: snapshot at offset {} failed", offset, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+
+        if (!open) {
+            return;
+        }
+
+        open = false;
+        queue.add(STOP);
+
+        try {
+            writer.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        PendingEvent pending;
+        while ((pending = queue.poll()) != null) {
+            if (pending != STOP) {
+                pending.result.completeExceptionally(new IllegalStateException("Game event log is closed"));
+            }
+        }
+
+        for (GameEventSegment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void enqueue(CompletableFuture<GameEventDto> event) {
+
+        queue(event).result.whenComplete((offset, e) -> {
+            if (e != null) {
+                logger.warn("GameEventLog: event not logged", e);
+            }
+        });
+    }
+
+    private PendingEvent queue(CompletableFuture<GameEventDto> event) {
+
+        PendingEvent pending = new PendingEvent(event);
+
+        if (open) {
+            queue.add(pending);
+        }
+        else {
+            pending.result.completeExceptionally(new IllegalStateException("Game event log is not open"));
+        }
+
+        return pending;
+    }
+
+    private void apply(GameEventDto event) {
+
+        lastEvents.merge(event.getGameId(), event, (logged, next) -> next.getVersion() >= logged.getVersion() ? next : logged);
+        // Written by the writer thread only once the log is open
+        lastVersion = Math.max(lastVersion, event.getVersion());
+    }
+
+    private long replaySegments(long applyAfter) throws IOException {
+
+        List<Path> paths = list(GameEventSegment.FILE_NAME);
+        // Without segments, offsets continue after the snapshot, so none is handed out twice
+        long next = applyAfter + 1;
+
+        for (int i = 0; i < paths.size(); i++) {
+            GameEventSegment segment = GameEventSegment.open(paths.get(i));
+
+            if (i > 0 && segment.getBaseOffset() != next) {
+                segment.close();
+                throw new IllegalStateException("Game event log segment " + paths.get(i) + " does not start at offset " + next);
+            }
+
+            segments.put(segment.getBaseOffset(), segment);
+            next = segment.recover(applyAfter, i == paths.size() - 1, this::apply);
+        }
+
+        if (segments.isEmpty()) {
+            GameEventSegment segment = GameEventSegment.create(directory, next);
+            segments.put(segment.getBaseOffset(), segment);
+        }
+
+        return next;
+    }
+
+    /**
+     * Writes the queued events in the order their positions were reserved. A batch ends before the first
+     * event whose transaction is still running; once the batch before it is synced, the writer waits for it.
+     */
+    private void write() {
+
+        Deque<PendingEvent> reserved = new ArrayDeque<>();
+        List<PendingEvent> batch = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        CRC32 crc = new CRC32();
+        boolean stopping = false;
+
+        while (!stopping) {
+            try {
+                if (reserved.isEmpty()) {
+                    reserved.add(queue.take());
+                }
+                queue.drainTo(reserved, Math.max(0, maxBatchSize - reserved.size()));
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+
+            while (!stopping && batch.size() < maxBatchSize && !reserved.isEmpty() && reserved.peek().reserved.isDone()) {
+                PendingEvent pending = reserved.poll();
+                stopping = pending == STOP;
+                pending.event = pending.reserved.getNow(null);
+
+                if (pending.event != null) {
+                    batch.add(pending);
+                }
+                else if (!stopping) {
+                    pending.result.complete(null);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch, buffer, crc);
+                batch.clear();
+            }
+            else if (!stopping && !reserved.isEmpty() && !awaitReserved(reserved)) {
+                break;
+            }
+        }
+
+        for (PendingEvent pending : reserved) {
+            pending.result.completeExceptionally(new IllegalStateException("Game event log is closed"));
+        }
+    }
+
+    /**
+     * Waits for the transaction holding the first position to finish, warning every
+     * {@code game.event-log.append-timeout} while it runs. Its event is never skipped, a later commit would
+     * otherwise be logged before it. Returns false when interrupted, or when the log is closed meanwhile.
+     */
+    private boolean awaitReserved(Deque<PendingEvent> reserved) {
+
+        try {
+            reserved.peek().reserved.get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            return false;
+        }
+        catch (TimeoutException e) {
+
+            logger.warn("GameEventLog: the transaction holding the next position has not finished within {}", appendTimeout);
+
+            return open;
+        }
+        catch (ExecutionException e) {
+            // Reserved events are never completed exceptionally
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the batch through the buffer and syncs it once, or once per segment when the batch
+     * fills the current one. Events after the last sync fail and are cut from the file.
+     */
+    private void writeBatch(List<PendingEvent> batch, ByteBuffer buffer, CRC32 crc) {
+
+        int committed = 0;
+
+        try {
+            GameEventSegment segment = segments.lastEntry().getValue();
+            long bufferedOffset = nextOffset;
+            buffer.clear();
+
+            for (int i = 0; i < batch.size(); i++) {
+                GameEventDto event = batch.get(i).event;
+                byte[] name = GameEventCodec.encodeName(event.getName());
+                int recordSize = GameEventCodec.recordSize(name);
+                long segmentBytes = segment.getSize() + buffer.position();
+                boolean roll = segmentBytes > 0 && segmentBytes + recordSize > segmentSize;
+
+                if (roll || buffer.remaining() < recordSize) {
+                    buffer.flip();
+                    segment.write(buffer, bufferedOffset);
+                    buffer.clear();
+                    bufferedOffset = nextOffset;
+                }
+
+                if (roll) {
+                    commit(segment, batch, committed, i);
+                    committed = i;
+                    segment = GameEventSegment.create(directory, nextOffset);
+                    segments.put(segment.getBaseOffset(), segment);
+                }
+
+                event.setOffset(nextOffset++);
+                GameEventCodec.encode(event, name, buffer, crc);
+            }
+
+            buffer.flip();
+            segment.write(buffer, bufferedOffset);
+            commit(segment, batch, committed, batch.size());
+        }
+        catch (IOException | RuntimeException e) {
+
+            logger.warn("GameEventLog: {} events not logged", batch.size() - committed, e);
+
+            nextOffset = durableOffset + 1;
+            try {
+                segments.lastEntry().getValue().truncateToDurableSize();
+            }
+            catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+
+            for (int i = committed; i < batch.size(); i++) {
+                batch.get(i).result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void commit(GameEventSegment segment, List<PendingEvent> batch, int from, int to) throws IOException {
+
+        segment.force();
+
+        for (int i = from; i < to; i++) {
+            apply(batch.get(i).event);
+        }
+
+        durableOffset = nextOffset - 1;
+
+        for (int i = from; i < to; i++) {
+            PendingEvent pending = batch.get(i);
+            pending.result.complete(pending.event.getOffset());
+        }
+    }
+
+    /**
+     * Loads the newest intact snapshot into the last events and returns its offset, 0 without one.
+     */
+    private long loadSnapshot() throws IOException {
+
+        List<Path> snapshots = list(SNAPSHOT_FILE_NAME);
+        Collections.reverse(snapshots);
+
+        for (Path path : snapshots) {
+            Map<Long, GameEventDto> events = new HashMap<>();
+            long offset = readSnapshot(path, events);
+
+            if (offset >= 0) {
+                events.values().forEach(this::apply);
+                return offset;
+            }
+
+            logger.warn("GameEventLog: snapshot {} is damaged, trying an older one", path);
+        }
+
+        return 0L;
+    }
+
+    private long readSnapshot(Path path, Map<Long, GameEventDto> events) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+
+            if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC) {
+                return -1L;
+            }
+
+            long offset = buffer.getLong();
+            int count = buffer.getInt();
+
+            for (int i = 0; i < count; i++) {
+                if (GameEventCodec.check(buffer, crc) < 0) {
+                    return -1L;
+                }
+
+                GameEventDto event = GameEventCodec.decode(buffer);
+                events.put(event.getGameId(), event);
+            }
+
+            return buffer.hasRemaining() ? -1L : offset;
+        }
+    }
+
+    /**
+     * Writes the last events to a temporary file and renames it, so a snapshot file is always complete.
+     */
+    private void writeSnapshot(long offset) throws IOException {
+
+        List<GameEventDto> events = new ArrayList<>(lastEvents.values());
+        Path temporary = directory.resolve("snapshot.tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        CRC32 crc = new CRC32();
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            buffer.putInt(SNAPSHOT_MAGIC).putLong(offset).putInt(events.size());
+
+            for (GameEventDto event : events) {
+                byte[] name = GameEventCodec.encodeName(event.getName());
+
+                if (buffer.remaining() < GameEventCodec.recordSize(name)) {
+                    drain(channel, buffer);
+                }
+
+                GameEventCodec.encode(event, name, buffer, crc);
+            }
+
+            drain(channel, buffer);
+            channel.force(true);
+        }
+
+        Files.move(temporary, directory.resolve(String.format("snapshot-%020d.snap", offset)), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteOldSnapshots() throws IOException {
+
+        List<Path> snapshots = list(SNAPSHOT_FILE_NAME);
+
+        for (Path path : snapshots.subList(0, Math.max(0, snapshots.size() - SNAPSHOTS_KEPT))) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Files of the directory whose names match, in name order, which is offset order.
+     */
+    private List<Path> list(Pattern fileName) throws IOException {
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> fileName.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static final class PendingEvent {
+
+        // Completed with the event once its transaction commits, with null on rollback
+        private final CompletableFuture<GameEventDto> reserved;
+
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        // Set by the writer thread once the event is reserved
+        private GameEventDto event;
+
+        private PendingEvent(CompletableFuture<GameEventDto> reserved) {
+
+            this.reserved = reserved;
+        }
+    }
+}
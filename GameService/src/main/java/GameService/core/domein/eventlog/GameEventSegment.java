@@ -0,0 +1,237 @@
+package GameService.core.domein.eventlog;
+
+import GameService.core.domein.dto.GameEventDto;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * One file of the game event log, holding consecutive records from {@code baseOffset} on.
+ * Written only by the log's writer thread; readers see the records up to the last {@link #force()}.
+ */
+final class GameEventSegment implements Closeable {
+
+    static final Pattern FILE_NAME = Pattern.compile("\\d{20}\\.log");
+
+    private static final int INDEX_INTERVAL_BYTES = 64 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    private final long baseOffset;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    // Offset of a record roughly every INDEX_INTERVAL_BYTES to its position, reads start from the closest one
+    private final ConcurrentSkipListMap<Long, Long> index = new ConcurrentSkipListMap<>();
+
+    private long size;
+
+    private volatile long durableSize;
+
+    private long lastIndexedPosition = -INDEX_INTERVAL_BYTES;
+
+    private GameEventSegment(long baseOffset, Path path, FileChannel channel) {
+
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.channel = channel;
+    }
+
+    static GameEventSegment create(Path directory, long baseOffset) throws IOException {
+
+        Path path = directory.resolve(String.format("%020d.log", baseOffset));
+
+        return new GameEventSegment(baseOffset, path,
+                FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    static GameEventSegment open(Path path) throws IOException {
+
+        String fileName = path.getFileName().toString();
+        long baseOffset = Long.parseLong(fileName.substring(0, fileName.indexOf('.')));
+
+        return new GameEventSegment(baseOffset, path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    long getBaseOffset() {
+
+        return baseOffset;
+    }
+
+    /**
+     * Bytes written, including those not forced yet.
+     */
+    long getSize() {
+
+        return size;
+    }
+
+    /**
+     * Maps the file and checks every record, passing those after {@code applyAfter} to the consumer.
+     * A torn or damaged tail, left when the process stopped during a write, is cut off when this is
+     * the last segment; anywhere else it fails the replay. Returns the offset following the last record.
+     */
+    long recover(long applyAfter, boolean last, Consumer<GameEventDto> consumer) throws IOException {
+
+        MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        CRC32 crc = new CRC32();
+        long nextOffset = baseOffset;
+
+        while (true) {
+            int position = buffer.position();
+            int recordSize = GameEventCodec.check(buffer, crc);
+
+            if (recordSize < 0 || GameEventCodec.offset(buffer) != nextOffset) {
+                break;
+            }
+
+            if (position - lastIndexedPosition >= INDEX_INTERVAL_BYTES) {
+                index.put(nextOffset, (long) position);
+                lastIndexedPosition = position;
+            }
+
+            if (nextOffset > applyAfter) {
+                consumer.accept(GameEventCodec.decode(buffer));
+            }
+            else {
+                buffer.position(position + recordSize);
+            }
+
+            nextOffset++;
+        }
+
+        long validSize = buffer.position();
+
+        if (validSize < channel.size()) {
+            if (!last) {
+                throw new IllegalStateException("Game event log segment " + path + " is damaged at position " + validSize);
+            }
+
+            channel.truncate(validSize);
+            channel.force(true);
+        }
+
+        size = validSize;
+        durableSize = validSize;
+
+        return nextOffset;
+    }
+
+    /**
+     * Writes encoded records, the first of them at {@code firstOffset}, to the end of the file.
+     */
+    void write(ByteBuffer records, long firstOffset) throws IOException {
+
+        if (!records.hasRemaining()) {
+            return;
+        }
+
+        if (size - lastIndexedPosition >= INDEX_INTERVAL_BYTES) {
+            index.put(firstOffset, size);
+            lastIndexedPosition = size;
+        }
+
+        while (records.hasRemaining()) {
+            size += channel.write(records, size);
+        }
+    }
+
+    /**
+     * Syncs the written records to disk and makes them readable.
+     */
+    void force() throws IOException {
+
+        channel.force(false);
+        durableSize = size;
+    }
+
+    /**
+     * Drops records written after the last {@link #force()}.
+     */
+    void truncateToDurableSize() throws IOException {
+
+        channel.truncate(durableSize);
+        size = durableSize;
+        index.values().removeIf(position -> position >= durableSize);
+
+        Map.Entry<Long, Long> lastEntry = index.lastEntry();
+        lastIndexedPosition = lastEntry == null ? -INDEX_INTERVAL_BYTES : lastEntry.getValue();
+    }
+
+    /**
+     * Adds the records after offset {@code after} to {@code events} until it holds {@code limit} events.
+     */
+    void read(long after, int limit, List<GameEventDto> events) throws IOException {
+
+        Map.Entry<Long, Long> entry = index.floorEntry(after + 1);
+        long position = entry == null ? 0L : entry.getValue();
+        long end = durableSize;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        CRC32 crc = new CRC32();
+
+        while (position < end && events.size() < limit) {
+            buffer.clear();
+            buffer.limit((int) Math.min(READ_BUFFER_SIZE, end - position));
+            readFully(buffer, position);
+            buffer.flip();
+
+            while (events.size() < limit) {
+                int recordSize = GameEventCodec.check(buffer, crc);
+
+                if (recordSize == GameEventCodec.INCOMPLETE && buffer.position() > 0) {
+                    break;
+                }
+                if (recordSize < 0) {
+                    throw new IllegalStateException("Game event log segment " + path + " is damaged at position "
+                                                            + (position + buffer.position()));
+                }
+
+                GameEventDto event = GameEventCodec.decode(buffer);
+
+                if (event.getOffset() > after) {
+                    events.add(event);
+                }
+                if (!buffer.hasRemaining()) {
+                    break;
+                }
+            }
+
+            position += buffer.position();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+
+        long filePosition = position;
+
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, filePosition);
+
+            if (read < 0) {
+                throw new EOFException("Game event log segment " + path + " ends before position " + (filePosition + buffer.remaining()));
+            }
+
+            filePosition += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        channel.close();
+    }
+}
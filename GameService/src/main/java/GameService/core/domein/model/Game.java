@@ -1,11 +1,16 @@
 package GameService.core.domein.model;
 
-import java.sql.Time;
+import java.time.LocalDateTime;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,19 +22,40 @@ import lombok.NoArgsConstructor;
 public class Game {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_seq")
+    @SequenceGenerator(name = "game_seq", sequenceName = "game_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
     @Column(name = "name")
     private String name;
 
+    @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private GameStatus status;
 
     @Column(name = "updated_at")
-    private Time updatedAt;
+    private LocalDateTime updatedAt;
 
-    @Column(name = "created_at")
-    private Time createdAt;
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Value of {@code game_version} taken by the transaction that last wrote the row.
+     */
+    @Column(name = "version")
+    private long version;
+
+    @PrePersist
+    void onCreate() {
+
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+
+        updatedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,8 @@
+package GameService.core.domein.model;
+
+/**
+ * Kind of a game event log record. Stored by ordinal, new types go at the end.
+ */
+public enum GameEventType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,58 @@
+package GameService.core.domein.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Player registration of a newly created game, written in the same transaction as the game
+ * and delivered to PlayerService by {@code GameRegistrationDispatcher}.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "game_registration_outbox")
+public class GameRegistrationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_registration_outbox_seq")
+    @SequenceGenerator(name = "game_registration_outbox_seq", sequenceName = "game_registration_outbox_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(name = "player_name")
+    private String playerName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private RegistrationStatus status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version")
+    private long version;
+}
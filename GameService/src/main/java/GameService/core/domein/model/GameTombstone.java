@@ -0,0 +1,32 @@
+package GameService.core.domein.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Deleted game, written in the same transaction as the delete so {@code GET /game/changes}
+ * can report it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "game_tombstone")
+public class GameTombstone {
+
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(name = "version")
+    private long version;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+}
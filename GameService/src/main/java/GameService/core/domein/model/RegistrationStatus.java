@@ -0,0 +1,6 @@
+package GameService.core.domein.model;
+
+public enum RegistrationStatus {
+    PENDING, DONE, FAILED
+
+}
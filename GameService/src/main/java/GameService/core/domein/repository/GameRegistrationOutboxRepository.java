@@ -0,0 +1,31 @@
+package GameService.core.domein.repository;
+
+import GameService.core.domein.model.GameRegistrationOutbox;
+import GameService.core.domein.model.RegistrationStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface GameRegistrationOutboxRepository extends CrudRepository<GameRegistrationOutbox, Long> {
+
+    List<GameRegistrationOutbox> findAllByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(RegistrationStatus status,
+            LocalDateTime now, Pageable pageable);
+
+    Optional<GameRegistrationOutbox> findFirstByGameIdOrderByIdDesc(Long gameId);
+
+    /**
+     * Leases the pending row to the caller until {@code leaseUntil} when it still has the given version,
+     * returns 1 when it was claimed. Bumps the version, so a previous claimant can no longer save the row.
+     */
+    @Modifying
+    @Query("update GameRegistrationOutbox o set o.nextAttemptAt = :leaseUntil, o.version = o.version + 1 "
+            + "where o.id = :id and o.version = :version and o.status = :status")
+    int claim(@Param("id") Long id, @Param("version") long version, @Param("status") RegistrationStatus status,
+            @Param("leaseUntil") LocalDateTime leaseUntil);
+
+}
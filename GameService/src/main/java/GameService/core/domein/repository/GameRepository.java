@@ -1,14 +1,100 @@
 package GameService.core.domein.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import GameService.core.domein.dto.GameDto;
 import GameService.core.domein.model.Game;
 import GameService.core.domein.model.GameStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface GameRepository extends CrudRepository<Game, Long>, GameRepositoryCustom {
+
+    String SELECT_GAME_DTO = "select new GameService.core.domein.dto.GameDto(g.name, g.status) from Game g";
+
+    // Read paths select GameDto directly, nothing is hydrated or tracked for dirty checking
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO)
+    List<GameDto> findAllGameDtos();
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.name = :name and g.status = :status")
+    List<GameDto> findGameDtosByNameAndStatus(@Param("name") String name, @Param("status") GameStatus status);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.name = :name")
+    List<GameDto> findGameDtosByName(@Param("name") String name);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.status = :status")
+    List<GameDto> findGameDtosByStatus(@Param("status") GameStatus status);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.name = :name and g.status = :status and g.id in :ids")
+    List<GameDto> findGameDtosByNameAndStatusAndIdIn(@Param("name") String name, @Param("status") GameStatus status,
+                                                     @Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.name = :name and g.id in :ids")
+    List<GameDto> findGameDtosByNameAndIdIn(@Param("name") String name, @Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.status = :status and g.id in :ids")
+    List<GameDto> findGameDtosByStatusAndIdIn(@Param("status") GameStatus status, @Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_GAME_DTO + " where g.id in :ids")
+    List<GameDto> findGameDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select g.id from Game g where g.name = :name and g.status = :status")
+    List<Long> findIdsByNameAndStatus(@Param("name") String name, @Param("status") GameStatus status);
+
+    @Transactional(readOnly = true)
+    @Query("select g.id from Game g where g.name = :name")
+    List<Long> findIdsByName(@Param("name") String name);
+
+    @Query("select g.status from Game g where g.id = :id")
+    GameStatus findStatusById(@Param("id") Long id);
+
+    @Query("select g.id from Game g where g.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    List<Game> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Game> findAllByVersionBetweenOrderByVersionAsc(Long fromVersion, Long toVersion, Pageable pageable);
+
+    @Query("select min(g.version) from Game g where g.updatedAt >= :since")
+    Long findMinVersionUpdatedSince(@Param("since") LocalDateTime since);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select g from Game g order by g.id")
+    Stream<Game> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_GAME_DTO + " order by g.id")
+    Stream<GameDto> streamAllGameDtos();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_GAME_DTO + " where g.name = :name and g.status = :status order by g.id")
+    Stream<GameDto> streamGameDtosByNameAndStatus(@Param("name") String name, @Param("status") GameStatus status);
 
-public interface GameRepository extends CrudRepository<Game, Long> {
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_GAME_DTO + " where g.name = :name order by g.id")
+    Stream<GameDto> streamGameDtosByName(@Param("name") String name);
 
-    List<Game> findAllByNameAndStatus(String name, GameStatus status);
-    List<Game> findAllByName(String name);
-    List<Game> findAllByStatus(GameStatus status);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_GAME_DTO + " where g.status = :status order by g.id")
+    Stream<GameDto> streamGameDtosByStatus(@Param("status") GameStatus status);
 
 }
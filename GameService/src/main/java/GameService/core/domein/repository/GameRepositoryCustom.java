@@ -0,0 +1,31 @@
+package GameService.core.domein.repository;
+
+import GameService.core.domein.model.GameStatus;
+import java.util.Map;
+
+public interface GameRepositoryCustom {
+
+    /**
+     * Bumps the version of the game table and returns the new value. Must run inside the transaction
+     * that changed the games; the version row stays locked until it commits, so versions become
+     * visible in the order they were taken.
+     */
+    long incrementVersion();
+
+    long getVersion();
+
+    /**
+     * Adds delta to the number of games with the given status. Must run inside the transaction that
+     * changed the games, after {@link #incrementVersion()}, which serializes the writers.
+     */
+    void addToStatusCount(GameStatus status, long delta);
+
+    Map<GameStatus, Long> getStatusCounts();
+
+    /**
+     * Recounts the games per status without locking, then locks the version row and corrects only the
+     * counts that drifted by their drift, so writers are not held back during the count. Returns whether
+     * any count changed.
+     */
+    boolean reconcileStatusCounts();
+}
@@ -0,0 +1,100 @@
+package GameService.core.domein.repository;
+
+import GameService.core.domein.model.GameStatus;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class GameRepositoryCustomImpl implements GameRepositoryCustom {
+
+    private static final String INCREMENT_VERSION = "UPDATE game_version SET version = version + 1 WHERE id = 1";
+
+    private static final String SELECT_VERSION = "SELECT version FROM game_version WHERE id = 1";
+
+    private static final String LOCK_VERSION = "SELECT version FROM game_version WHERE id = 1 FOR UPDATE";
+
+    private static final String ADD_TO_STATUS_COUNT = "UPDATE game_status_count SET game_count = game_count + ? WHERE status = ?";
+
+    private static final String INSERT_STATUS_COUNT = "INSERT INTO game_status_count (status, game_count) VALUES (?, ?)";
+
+    private static final String SELECT_STATUS_COUNTS = "SELECT status, game_count FROM game_status_count";
+
+    private static final String COUNT_GAMES_WITH_STATUS = "SELECT COUNT(*) FROM game WHERE status = ?";
+
+    // One statement, so the stored counts and the games are read from the same snapshot
+    private static final String SELECT_STATUS_COUNT_DRIFTS =
+            "SELECT c.status, (SELECT COUNT(*) FROM game g WHERE g.status = c.status) - c.game_count FROM game_status_count c";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GameRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long incrementVersion() {
+
+        jdbcTemplate.update(INCREMENT_VERSION);
+
+        return getVersion();
+    }
+
+    @Override
+    public long getVersion() {
+
+        Long version = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+
+        return version == null ? 0L : version;
+    }
+
+    @Override
+    public void addToStatusCount(GameStatus status, long delta) {
+
+        jdbcTemplate.update(ADD_TO_STATUS_COUNT, delta, status.name());
+    }
+
+    @Override
+    public Map<GameStatus, Long> getStatusCounts() {
+
+        return queryStatusCounts(SELECT_STATUS_COUNTS);
+    }
+
+    @Override
+    public boolean reconcileStatusCounts() {
+
+        Map<GameStatus, Long> drifts = queryStatusCounts(SELECT_STATUS_COUNT_DRIFTS);
+        Set<GameStatus> missing = EnumSet.allOf(GameStatus.class);
+        missing.removeAll(drifts.keySet());
+        drifts.values().removeIf(drift -> drift == 0L);
+
+        if (drifts.isEmpty() && missing.isEmpty()) {
+            return false;
+        }
+
+        jdbcTemplate.queryForObject(LOCK_VERSION, Long.class);
+
+        // Writers committed since the snapshot changed the games and the counts alike, so only the drift is added
+        drifts.forEach((status, drift) -> addToStatusCount(status, drift));
+
+        // Counted under the lock, which only happens once for a status added after the counts were created
+        for (GameStatus status : missing) {
+            jdbcTemplate.update(INSERT_STATUS_COUNT, status.name(), jdbcTemplate.queryForObject(COUNT_GAMES_WITH_STATUS, Long.class, status.name()));
+        }
+
+        return true;
+    }
+
+    private Map<GameStatus, Long> queryStatusCounts(String sql) {
+
+        Map<GameStatus, Long> counts = new EnumMap<>(GameStatus.class);
+
+        jdbcTemplate.query(sql, resultSet -> {
+            counts.put(GameStatus.valueOf(resultSet.getString(1)), resultSet.getLong(2));
+        });
+
+        return counts;
+    }
+}
@@ -0,0 +1,17 @@
+package GameService.core.domein.repository;
+
+import GameService.core.domein.model.GameTombstone;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface GameTombstoneRepository extends CrudRepository<GameTombstone, Long> {
+
+    List<GameTombstone> findAllByVersionBetweenOrderByVersionAsc(Long fromVersion, Long toVersion, Pageable pageable);
+
+    @Query("select min(t.version) from GameTombstone t where t.deletedAt >= :since")
+    Long findMinVersionDeletedSince(@Param("since") LocalDateTime since);
+}
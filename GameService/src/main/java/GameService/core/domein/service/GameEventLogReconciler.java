@@ -0,0 +1,99 @@
+package GameService.core.domein.service;
+
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.eventlog.GameEventLog;
+import GameService.core.domein.model.GameEventType;
+import GameService.core.domein.repository.GameRepository;
+import GameService.core.domein.repository.GameTombstoneRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the replayed {@link GameEventLog} up to date with the game table on startup, before
+ * requests are served. The log is in version order, so only the games and tombstones written after
+ * its last version are read: a game gets its current state appended, and a logged game that was
+ * deleted gets a delete carrying its tombstone's version.
+ *
+ * This covers events lost when the service stopped between a commit and its append, and writes
+ * made while the log was disabled. Only the current state of such a game is logged, not the
+ * writes in between.
+ *
+ * Nothing depends on this bean, so it is excluded from lazy initialization to still run with the
+ * fast-startup profile.
+ */
+@Component
+@Lazy(false)
+public class GameEventLogReconciler {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final GameEventLog gameEventLog;
+
+    private final GameRepository gameRepository;
+
+    private final GameTombstoneRepository tombstoneRepository;
+
+    public GameEventLogReconciler(GameEventLog gameEventLog, GameRepository gameRepository, GameTombstoneRepository tombstoneRepository) {
+
+        this.gameEventLog = gameEventLog;
+        this.gameRepository = gameRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @PostConstruct
+    public void reconcile() {
+
+        if (!gameEventLog.isOpen()) {
+            return;
+        }
+
+        long upToVersion = gameRepository.getVersion();
+        long afterVersion = gameEventLog.getLastVersion();
+        List<CompletableFuture<Long>> appended = new ArrayList<>();
+
+        while (afterVersion < upToVersion) {
+            List<GameEventDto> changes = new ArrayList<>();
+            gameRepository.findAllByVersionBetweenOrderByVersionAsc(afterVersion + 1, upToVersion, PageRequest.of(0, PAGE_SIZE))
+                    .forEach(game -> changes.add(new GameEventDto(GameEventType.UPDATED, game)));
+            tombstoneRepository.findAllByVersionBetweenOrderByVersionAsc(afterVersion + 1, upToVersion, PageRequest.of(0, PAGE_SIZE))
+                    .forEach(tombstone -> changes.add(new GameEventDto(tombstone)));
+
+            changes.sort(Comparator.comparing(GameEventDto::getVersion));
+
+            // Past the first page of either table the other one may still hold smaller versions
+            List<GameEventDto> page = changes.subList(0, Math.min(PAGE_SIZE, changes.size()));
+
+            for (GameEventDto change : page) {
+                GameEventDto logged = gameEventLog.getLastEvent(change.getGameId());
+
+                if (change.getType() == GameEventType.DELETED) {
+                    if (logged != null && logged.getType() != GameEventType.DELETED) {
+                        appended.add(gameEventLog.append(change));
+                    }
+                }
+                else {
+                    if (logged == null || logged.getType() == GameEventType.DELETED) {
+                        change.setType(GameEventType.CREATED);
+                    }
+                    appended.add(gameEventLog.append(change));
+                }
+            }
+
+            afterVersion = page.size() < PAGE_SIZE ? upToVersion : page.get(page.size() - 1).getVersion();
+        }
+
+        CompletableFuture.allOf(appended.toArray(new CompletableFuture[0])).join();
+
+        logger.debug("GameEventLogReconciler: reconcile successfully done, {} events appended", appended.size());
+    }
+}
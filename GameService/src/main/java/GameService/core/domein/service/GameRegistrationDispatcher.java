@@ -0,0 +1,314 @@
+package GameService.core.domein.service;
+
+import GameService.core.domein.cache.GameCache;
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.dto.GameRegistrationDto;
+import GameService.core.domein.dto.GameRegistrationResultDto;
+import GameService.core.domein.eventlog.GameEventLog;
+import GameService.core.domein.model.GameRegistrationOutbox;
+import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.GameTombstone;
+import GameService.core.domein.model.RegistrationStatus;
+import GameService.core.domein.repository.GameRegistrationOutboxRepository;
+import GameService.core.domein.repository.GameRepository;
+import GameService.core.domein.repository.GameTombstoneRepository;
+import GameService.core.util.CommunicationUtil;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Drains pending player registrations from the outbox to PlayerService in batches.
+ *
+ * Every run claims a page of due rows by bumping their version and leasing them for
+ * {@code game.registration.claim-lease}, then sends the claimed page in one
+ * {@code POST player/registration/batch} call. A row claimed by another instance is skipped, and
+ * results are saved through the row's version, so a dispatcher whose lease ran out cannot overwrite
+ * the outcome of the instance that claimed the row after it. Delivery is at least once: a row whose
+ * lease expires before its result is saved is sent again, and PlayerService answers a repeated
+ * registration of the same name and game as already registered.
+ *
+ * A pair PlayerService reports as INVALID is marked FAILED and its game is deleted, the same
+ * compensation {@code createGame} used to do synchronously. Every other failure, including 4xx answers
+ * for the whole batch such as 408, 415 or 429, is retried with exponential backoff and only fails the
+ * row once {@code game.registration.max-attempts} is reached.
+ */
+@Component
+public class GameRegistrationDispatcher {
+
+    private static final ParameterizedTypeReference<List<GameRegistrationResultDto>> responseResultList =
+            new ParameterizedTypeReference<List<GameRegistrationResultDto>>() {};
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final GameRegistrationOutboxRepository outboxRepository;
+
+    private final GameRepository gameRepository;
+
+    private final GameTombstoneRepository tombstoneRepository;
+
+    private final GameCache gameCache;
+
+    private final RestTemplate restTemplate;
+
+    private final PlayerServiceResilience playerServiceResilience;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GameEventLog gameEventLog;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final Duration claimLease;
+
+    private final boolean preferCbor;
+
+    public GameRegistrationDispatcher(GameRegistrationOutboxRepository outboxRepository, GameRepository gameRepository,
+            GameTombstoneRepository tombstoneRepository, GameCache gameCache, RestTemplate restTemplate, PlayerServiceResilience playerServiceResilience,
+            TransactionTemplate transactionTemplate, GameEventLog gameEventLog,
+            @Value("${game.registration.batch-size:100}") int batchSize,
+            @Value("${game.registration.max-attempts:10}") int maxAttempts,
+            @Value("${game.registration.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${game.registration.max-backoff:5m}") Duration maxBackoff,
+            @Value("${game.registration.claim-lease:1m}") Duration claimLease,
+            @Value("${http.client.prefer-cbor:true}") boolean preferCbor) {
+
+        this.outboxRepository = outboxRepository;
+        this.gameRepository = gameRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.gameCache = gameCache;
+        this.restTemplate = restTemplate;
+        this.playerServiceResilience = playerServiceResilience;
+        this.transactionTemplate = transactionTemplate;
+        this.gameEventLog = gameEventLog;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimLease = claimLease;
+        this.preferCbor = preferCbor;
+    }
+
+    /**
+     * Sends claimed pages until a page is not full or PlayerService could not take one.
+     */
+    @Scheduled(initialDelayString = "${game.registration.dispatch-initial-delay-ms:1000}",
+               fixedDelayString = "${game.registration.dispatch-delay-ms:500}")
+    public void dispatch() {
+
+        boolean morePending = true;
+
+        while (morePending) {
+            List<GameRegistrationOutbox> page = outboxRepository.findAllByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    RegistrationStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            List<GameRegistrationOutbox> registrations = claim(page);
+
+            boolean delivered = registrations.isEmpty() || deliver(registrations);
+            morePending = delivered && page.size() == batchSize;
+
+            if (!registrations.isEmpty()) {
+                logger.debug("GameRegistrationDispatcher: dispatched {} registrations", registrations.size());
+            }
+        }
+    }
+
+    /**
+     * Returns the rows of the page this instance claimed, with their claimed version and lease.
+     */
+    private List<GameRegistrationOutbox> claim(List<GameRegistrationOutbox> page) {
+
+        LocalDateTime leaseUntil = LocalDateTime.now().plus(claimLease);
+        List<GameRegistrationOutbox> claimed = new ArrayList<>(page.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (GameRegistrationOutbox registration : page) {
+                if (outboxRepository.claim(registration.getId(), registration.getVersion(), RegistrationStatus.PENDING, leaseUntil) == 1) {
+                    claimed.add(registration);
+                }
+            }
+        });
+
+        for (GameRegistrationOutbox registration : claimed) {
+            registration.setVersion(registration.getVersion() + 1);
+            registration.setNextAttemptAt(leaseUntil);
+        }
+
+        return claimed;
+    }
+
+    /**
+     * Sends the batch and saves the outcome of every row, returns false when PlayerService did not take the batch.
+     */
+    private boolean deliver(List<GameRegistrationOutbox> registrations) {
+
+        registrations.forEach(registration -> {
+            registration.setAttempts(registration.getAttempts() + 1);
+            registration.setUpdatedAt(LocalDateTime.now());
+        });
+
+        try {
+            List<GameRegistrationResultDto> results = playerRegistrations(registrations);
+
+            for (int index = 0; index < registrations.size(); index++) {
+                GameRegistrationOutbox registration = registrations.get(index);
+                GameRegistrationResultDto result = index < results.size() ? results.get(index) : null;
+
+                if (result == null || !registration.getPlayerName().equals(result.getName())
+                        || !registration.getGameId().equals(result.getGameId())) {
+                    logger.debug("GameRegistrationDispatcher: no result for registration {}", registration.getId());
+                    retry(registration);
+                }
+                else if (GameRegistrationResultDto.INVALID.equals(result.getStatus())) {
+                    logger.debug("GameRegistrationDispatcher: registration {} rejected by PlayerService", registration.getId());
+                    fail(registration);
+                }
+                else {
+                    registration.setStatus(RegistrationStatus.DONE);
+                    save(registration);
+                }
+            }
+
+            logger.debug("GameRegistrationDispatcher: playerRegistrations successfully done");
+
+            return true;
+        }
+        catch (CallNotPermittedException | BulkheadFullException e) {
+
+            // Never reached PlayerService, so it does not count towards max-attempts
+            logger.debug("GameRegistrationDispatcher: playerRegistrations not attempted, {}", e.getMessage());
+
+            registrations.forEach(registration -> {
+                registration.setAttempts(registration.getAttempts() - 1);
+                registration.setNextAttemptAt(LocalDateTime.now().plus(initialBackoff));
+                save(registration);
+            });
+
+            return false;
+        }
+        catch (Exception e) {
+
+            if (e instanceof HttpClientErrorException && isRejection((HttpClientErrorException) e)) {
+                // The batch as a whole names no invalid pair, so its rows are retried rather than compensated
+                logger.warn("GameRegistrationDispatcher: batch of {} registrations rejected by PlayerService, {}",
+                            registrations.size(), e.getMessage());
+            }
+            else {
+                logger.debug("GameRegistrationDispatcher: playerRegistrations problem with PlayerService");
+                logger.debug(e.getMessage());
+            }
+
+            registrations.forEach(this::retry);
+
+            return false;
+        }
+    }
+
+    private List<GameRegistrationResultDto> playerRegistrations(List<GameRegistrationOutbox> registrations) {
+
+        List<GameRegistrationDto> gameRegistrationDtos = registrations.stream()
+                .map(registration -> new GameRegistrationDto(registration.getPlayerName(), registration.getGameId()))
+                .collect(Collectors.toList());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(preferCbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+        HttpEntity<List<GameRegistrationDto>> entity = new HttpEntity<>(gameRegistrationDtos, headers);
+
+        ResponseEntity<List<GameRegistrationResultDto>> response = playerServiceResilience.call(() -> restTemplate.exchange(
+                CommunicationUtil.createURLWithPort("player/registration/batch"), HttpMethod.POST, entity, responseResultList));
+
+        return response.getBody() == null ? new ArrayList<>() : response.getBody();
+    }
+
+    /**
+     * Validation rejections; every other 4xx, such as 408, 415 or 429, can succeed when sent again.
+     */
+    private static boolean isRejection(HttpClientErrorException e) {
+
+        return e.getStatusCode() == HttpStatus.BAD_REQUEST || e.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY;
+    }
+
+    private void retry(GameRegistrationOutbox registration) {
+
+        if (registration.getAttempts() >= maxAttempts) {
+            fail(registration);
+        }
+        else {
+            registration.setNextAttemptAt(LocalDateTime.now().plus(backoff(registration.getAttempts())));
+            save(registration);
+        }
+    }
+
+    /**
+     * Saves the row unless another dispatcher claimed it since this one did.
+     */
+    private void save(GameRegistrationOutbox registration) {
+
+        try {
+            outboxRepository.save(registration);
+        }
+        catch (OptimisticLockingFailureException e) {
+            logger.debug("GameRegistrationDispatcher: registration {} was claimed again, result dropped", registration.getId());
+        }
+    }
+
+    private void fail(GameRegistrationOutbox registration) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                registration.setStatus(RegistrationStatus.FAILED);
+                outboxRepository.save(registration);
+                gameRepository.findById(registration.getGameId()).ifPresent(game -> {
+                    long version = gameRepository.incrementVersion();
+                    GameStatus gameStatus = gameRepository.findStatusById(game.getId());
+                    gameRepository.delete(game);
+                    GameTombstone tombstone = tombstoneRepository.save(new GameTombstone(game.getId(), version, LocalDateTime.now()));
+                    if (gameStatus != null) {
+                        gameRepository.addToStatusCount(gameStatus, -1);
+                    }
+                    gameEventLog.appendAfterCommit(() -> new GameEventDto(tombstone));
+                });
+            });
+        }
+        catch (OptimisticLockingFailureException e) {
+            logger.debug("GameRegistrationDispatcher: registration {} was claimed again, game kept", registration.getId());
+            return;
+        }
+        gameCache.invalidate(registration.getGameId());
+
+        logger.debug("GameRegistrationDispatcher: registration of game {} failed, game deleted", registration.getGameId());
+    }
+
+    private Duration backoff(int attempts) {
+
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
@@ -1,131 +1,399 @@
 package GameService.core.domein.service;
 
+import GameService.core.domein.cache.GameCache;
+import GameService.core.domein.dto.GameChangeDto;
+import GameService.core.domein.dto.GameChangesDto;
 import GameService.core.domein.dto.GameCreateDto;
 import GameService.core.domein.dto.GameDto;
-import GameService.core.domein.dto.GameRegistrationDto;
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.dto.GameEventSnapshotDto;
+import GameService.core.domein.dto.GamePageDto;
+import GameService.core.domein.dto.GameRegistrationStatusDto;
+import GameService.core.domein.dto.GameStatsDto;
+import GameService.core.domein.dto.VersionedGameDto;
+import GameService.core.domein.eventlog.GameEventLog;
 import GameService.core.domein.model.Game;
+import GameService.core.domein.model.GameEventType;
+import GameService.core.domein.model.GameRegistrationOutbox;
 import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.GameTombstone;
+import GameService.core.domein.model.RegistrationStatus;
+import GameService.core.domein.repository.GameRegistrationOutboxRepository;
 import GameService.core.domein.repository.GameRepository;
+import GameService.core.domein.repository.GameTombstoneRepository;
 import GameService.core.util.CommunicationUtil;
-import java.util.HashMap;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 @Service
 public class GameService {
 
+    /**
+     * Upper bound for the number of ids bound into a single {@code IN} clause.
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final byte[] NDJSON_LINE_SEPARATOR = {'\n'};
+
     private final RestTemplate restTemplate;
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
     private final GameRepository gameRepository;
 
-    public GameService(GameRepository gameRepository, RestTemplate restTemplate) {
+    private final GameTombstoneRepository tombstoneRepository;
+
+    private final GameRegistrationOutboxRepository outboxRepository;
+
+    private final GameCache gameCache;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Executor filterExecutor;
+
+    private final PlayerMembershipReplica playerMembershipReplica;
+
+    private final PlayerServiceResilience playerServiceResilience;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GameEventLog gameEventLog;
+
+    public GameService(GameRepository gameRepository, GameTombstoneRepository tombstoneRepository,
+            GameRegistrationOutboxRepository outboxRepository, GameCache gameCache, RestTemplate restTemplate, EntityManager entityManager, ObjectMapper objectMapper,
+            @Qualifier("applicationTaskExecutor") Executor filterExecutor, PlayerMembershipReplica playerMembershipReplica,
+            PlayerServiceResilience playerServiceResilience, TransactionTemplate transactionTemplate, GameEventLog gameEventLog) {
 
         this.gameRepository = gameRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.outboxRepository = outboxRepository;
+        this.gameCache = gameCache;
         this.restTemplate = restTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.filterExecutor = filterExecutor;
+        this.playerMembershipReplica = playerMembershipReplica;
+        this.playerServiceResilience = playerServiceResilience;
+        this.transactionTemplate = transactionTemplate;
+        this.gameEventLog = gameEventLog;
+    }
+
+    /**
+     * Entity tag of every game read, changes whenever a game is created, updated or deleted. Weak,
+     * as it names the version of the data in every encoding and media type, so Tomcat still
+     * compresses the responses that carry it.
+     */
+    public String getGamesETag() {
+
+        return weakETag("games-" + gameRepository.getVersion());
+    }
+
+    /**
+     * Entity tag of a filtered read. A player name filter also depends on PlayerService data,
+     * which is only versioned while {@link PlayerMembershipReplica} serves it; otherwise null.
+     */
+    public String getGamesFilteredETag(String playerName) {
+
+        if(playerName.isEmpty())
+        {
+            return getGamesETag();
+        }
+
+        String playerVersion = playerMembershipReplica.getVersionTag();
+
+        return playerMembershipReplica.isReady() ?
+                weakETag("games-" + gameRepository.getVersion() + "-players-" + playerVersion) : null;
+    }
+
+    /**
+     * Entity tag of a single game, the version of the row the served body was read from. A cached
+     * body read before a write keeps its old tag until the entry is invalidated after the commit.
+     */
+    public String getGameETag(VersionedGameDto game) {
+
+        return weakETag("game-" + game.getVersion());
+    }
+
+    private static String weakETag(String tag) {
+
+        return "W/\"" + tag + "\"";
     }
 
     public List<GameDto> getAllGames() {
 
-        List<Game> games = (List<Game>) gameRepository.findAll();
+        List<GameDto> gameDtos = gameRepository.findAllGameDtos();
 
         logger.debug("GameService: getAllGames successfully done");
 
-        return games.stream().map(GameDto::new).collect(Collectors.toList());
+        return gameDtos;
     }
 
-    public GameDto getGameById(Long id) {
+    /**
+     * Number of games per status, read from the counters every write keeps up to date
+     * and {@link GameStatsReconciler} corrects.
+     */
+    public GameStatsDto getGameStats() {
+
+        Map<GameStatus, Long> byStatus = new EnumMap<>(GameStatus.class);
+
+        for (GameStatus status : GameStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        byStatus.putAll(gameRepository.getStatusCounts());
+
+        logger.debug("GameService: getGameStats successfully done");
+
+        return new GameStatsDto(byStatus.values().stream().mapToLong(Long::longValue).sum(), byStatus);
+    }
 
-        Game game;
+    public GamePageDto getGamesPage(Long afterId, int size) {
 
-        if(gameRepository.findById(id).isPresent())
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        List<Game> games = gameRepository.findAllByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId,
+                                                                             PageRequest.of(0, pageSize));
+
+        Long nextCursor = games.size() < pageSize ? null : games.get(games.size() - 1).getId();
+
+        logger.debug("GameService: getGamesPage successfully done");
+
+        return new GamePageDto(games.stream().map(GameDto::new).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Writes every game as one JSON document per line, reading them through a cursor
+     * and detaching each entity once written, so the full table is never held in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllGames(OutputStream outputStream) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(GameDto.class);
+
+        try (Stream<Game> games = gameRepository.streamAll()) {
+            Iterator<Game> iterator = games.iterator();
+
+            while (iterator.hasNext()) {
+                Game game = iterator.next();
+                outputStream.write(writer.writeValueAsBytes(new GameDto(game)));
+                outputStream.write(NDJSON_LINE_SEPARATOR);
+                entityManager.detach(game);
+            }
+        }
+
+        outputStream.flush();
+
+        logger.debug("GameService: streamAllGames successfully done");
+    }
+
+    public VersionedGameDto getGameById(Long id) {
+
+        VersionedGameDto gameDto = gameCache.get(id, gameId -> gameRepository.findById(gameId).map(VersionedGameDto::new).orElse(null));
+
+        if(gameDto != null)
         {
-            game = gameRepository.findById(id).get();
             logger.debug("GameService: getGameById successfully done");
-            return new GameDto(game);
         }
         else
         {
             logger.debug("GameService: getGameById, game with id {} dose not exist", id);
-            return null;
         }
 
+        return gameDto;
     }
 
-    public HttpStatus createGame(GameCreateDto gameCreateDto) {
+    public List<Long> getExistingGameIds(Collection<Long> ids) {
+
+        List<Long> existingIds = new ArrayList<>();
+
+        for (List<Long> chunk : chunkIds(ids)) {
+            existingIds.addAll(gameRepository.findExistingIds(chunk));
+        }
+
+        logger.debug("GameService: getExistingGameIds successfully done");
+
+        return existingIds;
+    }
+
+    /**
+     * Saves the game together with its pending player registration in one transaction.
+     * The registration is delivered to PlayerService later by {@link GameRegistrationDispatcher}.
+     */
+    @Transactional
+    public GameRegistrationStatusDto createGame(GameCreateDto gameCreateDto) {
 
         Game game = new Game();
         game.setName(gameCreateDto.getName());
         game.setStatus(GameStatus.NEW);
+        game.setVersion(gameRepository.incrementVersion());
         Game newGame = gameRepository.save(game);
+        gameRepository.addToStatusCount(GameStatus.NEW, 1);
+        gameEventLog.appendAfterCommit(() -> new GameEventDto(GameEventType.CREATED, newGame));
 
-        boolean done = playerRegistration(gameCreateDto.getPlayerName(), newGame.getId());
+        LocalDateTime now = LocalDateTime.now();
 
-        if(done){
-            logger.debug("GameService: createGame successfully done");
+        GameRegistrationOutbox registration = new GameRegistrationOutbox();
+        registration.setGameId(newGame.getId());
+        registration.setPlayerName(gameCreateDto.getPlayerName());
+        registration.setStatus(RegistrationStatus.PENDING);
+        registration.setNextAttemptAt(now);
+        registration.setCreatedAt(now);
+        registration.setUpdatedAt(now);
+        outboxRepository.save(registration);
 
-            return HttpStatus.CREATED;
-        }
+        logger.debug("GameService: createGame successfully done, player registration pending");
 
-        gameRepository.delete(newGame);
+        return new GameRegistrationStatusDto(registration);
+    }
 
-        logger.debug("GameService: not created game maybe player's name does not exist or communication problems");
+    /**
+     * Returns games created, updated or deleted after the {@code since} watermark, ordered by version.
+     * {@code since} is either a token returned as {@code nextSince} by an earlier call, or an ISO local
+     * date-time; without it every game is returned. A date-time only picks the starting token, from the row timestamps, so it is exact only
+     * to within clock and commit skew; tokens are exact.
+     *
+     * Both queries are capped at the version read first. Versions become visible in the order they
+     * were taken, so every change up to that cap is already committed and none can be skipped.
+     */
+    public GameChangesDto getGameChanges(String since, int limit) {
 
-        return HttpStatus.INTERNAL_SERVER_ERROR;
-    }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long upToVersion = gameRepository.getVersion();
+        long afterVersion = resolveSince(since);
 
-    private boolean playerRegistration(String playerName, Long gameId) {
+        List<GameChangeDto> changes = new ArrayList<>();
+        gameRepository.findAllByVersionBetweenOrderByVersionAsc(afterVersion + 1, upToVersion, PageRequest.of(0, pageSize))
+                .forEach(game -> changes.add(new GameChangeDto(game)));
+        tombstoneRepository.findAllByVersionBetweenOrderByVersionAsc(afterVersion + 1, upToVersion, PageRequest.of(0, pageSize))
+                .forEach(tombstone -> changes.add(new GameChangeDto(tombstone)));
 
-        GameRegistrationDto gameRegistrationDto = new GameRegistrationDto();
-        gameRegistrationDto.setGameId(gameId);
-        gameRegistrationDto.setName(playerName);
+        changes.sort(Comparator.comparing(GameChangeDto::getVersion));
 
+        List<GameChangeDto> page = new ArrayList<>(changes.subList(0, Math.min(pageSize, changes.size())));
+        long nextSince = page.size() < pageSize ? Math.max(afterVersion, upToVersion) : page.get(page.size() - 1).getVersion();
 
-        HttpHeaders headers = new HttpHeaders();
-        HttpEntity<GameRegistrationDto> entity = new HttpEntity<GameRegistrationDto>(gameRegistrationDto, headers);
+        logger.debug("GameService: getGameChanges successfully done");
 
+        return new GameChangesDto(page, nextSince);
+    }
 
+    private long resolveSince(String since) {
 
-        logger.debug("GameService: playerRegistration successfully sent request");
+        if(since == null || since.isEmpty())
+        {
+            // Rows written before versioning was introduced carry version 0
+            return -1L;
+        }
 
         try {
-            ResponseEntity<Void> response =  restTemplate.exchange(CommunicationUtil.createURLWithPort("player/registration" ), HttpMethod.POST, entity, Void.class);
+            return Long.parseLong(since);
+        }
+        catch (NumberFormatException e) {
+            LocalDateTime sinceTime = LocalDateTime.parse(since);
 
-            logger.debug("GameService: playerRegistration successfully done");
+            Long gameVersion = gameRepository.findMinVersionUpdatedSince(sinceTime);
+            Long tombstoneVersion = tombstoneRepository.findMinVersionDeletedSince(sinceTime);
 
-            return true;
+            if(gameVersion == null && tombstoneVersion == null)
+            {
+                return gameRepository.getVersion();
+            }
+
+            return Math.min(gameVersion == null ? Long.MAX_VALUE : gameVersion,
+                            tombstoneVersion == null ? Long.MAX_VALUE : tombstoneVersion) - 1;
         }
-        catch (Exception e){
+    }
 
-            logger.debug("GameService: playerRegistration problem with PlayerService");
-            logger.debug(e.getMessage());
+    /**
+     * Returns up to {@code limit} events logged after the given offset, or null while the event log is disabled.
+     */
+    public List<GameEventDto> getGameEvents(Long after, int limit) throws IOException {
+
+        if(!gameEventLog.isOpen())
+        {
+            return null;
+        }
+
+        List<GameEventDto> events = gameEventLog.read(after == null ? 0L : after, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+
+        logger.debug("GameService: getGameEvents successfully done");
+
+        return events;
+    }
+
+    public GameEventSnapshotDto getGameEventSnapshot() {
 
-            return false;
+        if(!gameEventLog.isOpen())
+        {
+            return null;
         }
 
+        GameEventSnapshotDto snapshot = gameEventLog.getSnapshot();
+
+        logger.debug("GameService: getGameEventSnapshot successfully done");
+
+        return snapshot;
     }
 
+    public GameRegistrationStatusDto getGameRegistrationStatus(Long gameId) {
+
+        return outboxRepository.findFirstByGameIdOrderByIdDesc(gameId).map(GameRegistrationStatusDto::new).orElse(null);
+    }
 
     public HttpStatus deleteGameById(Long id) {
 
-        Game game;
+        Optional<Game> game = gameRepository.findById(id);
 
-        if(gameRepository.findById(id).isPresent())
+        if(game.isPresent())
         {
-            game = gameRepository.findById(id).get();
-            gameRepository.delete(game);
+            transactionTemplate.executeWithoutResult(status -> {
+                long version = gameRepository.incrementVersion();
+                GameStatus gameStatus = gameRepository.findStatusById(id);
+                gameRepository.delete(game.get());
+                GameTombstone tombstone = tombstoneRepository.save(new GameTombstone(id, version, LocalDateTime.now()));
+                if (gameStatus != null) {
+                    gameRepository.addToStatusCount(gameStatus, -1);
+                }
+                gameEventLog.appendAfterCommit(() -> new GameEventDto(tombstone));
+            });
+            gameCache.invalidate(id);
 
             logger.debug("GameService: deleteGameById successfully done");
             return HttpStatus.OK;
@@ -139,15 +407,38 @@ public class GameService {
 
     public GameDto updateGame(Long id, GameDto gameDto) {
 
-        Game game;
+        Optional<Game> foundGame = gameRepository.findById(id);
 
-        if(gameRepository.findById(id).isPresent())
+        if(foundGame.isPresent())
         {
-            game = gameRepository.findById(id).get();
-            game.setName(gameDto.getName());
-            game.setStatus(gameDto.getStatus());
-
-            Game updatedGame = gameRepository.save(game);
+            Game game = foundGame.get();
+
+            Game updatedGame = transactionTemplate.execute(status -> {
+                long version = gameRepository.incrementVersion();
+                // Read before the entity changes, the query would flush it otherwise
+                GameStatus previousStatus = gameRepository.findStatusById(id);
+                if (previousStatus == null) {
+                    // Deleted since it was read, saving the detached entity would insert it again
+                    status.setRollbackOnly();
+                    return null;
+                }
+                if (previousStatus != gameDto.getStatus()) {
+                    gameRepository.addToStatusCount(previousStatus, -1);
+                    gameRepository.addToStatusCount(gameDto.getStatus(), 1);
+                }
+                game.setName(gameDto.getName());
+                game.setStatus(gameDto.getStatus());
+                game.setVersion(version);
+                Game savedGame = gameRepository.save(game);
+                gameEventLog.appendAfterCommit(() -> new GameEventDto(GameEventType.UPDATED, savedGame));
+                return savedGame;
+            });
+            gameCache.invalidate(id);
+
+            if (updatedGame == null) {
+                logger.debug("GameService: updateGame, game with id {} was deleted concurrently", id);
+                return null;
+            }
 
             logger.debug("GameService: updateGame successfully done");
             return new GameDto(updatedGame);
@@ -160,54 +451,222 @@ public class GameService {
 
     }
 
+    /**
+     * Returns null when filtering by player name and PlayerService cannot answer, rather than
+     * ignoring the player name.
+     */
     public List<GameDto> getGamesFiltered(String gameName, String stringStatus, String playerName) {
 
         GameStatus status;
         List<Long> gameIds = null;
-        List<Game> gameDtos;
 
         status = checkGameStatusValue(stringStatus);
 
+        if(!playerName.isEmpty() && !gameName.isEmpty() && !playerMembershipReplica.isReady()){
+            return findGamesByPlayerNameConcurrently(playerName, gameName, status);
+        }
+
         if(!playerName.isEmpty()){
             gameIds = getGameIdsByPlayerName(playerName);
-        }
 
-        gameDtos = findIntersectionGameNameGameStatus(gameName, status);
+            if(gameIds == null)
+            {
+                return null;
+            }
+        }
 
         if(gameIds!=null)
         {
-            gameDtos = findIntersectionGameIdGameNameGameStatus(gameIds, gameDtos);
+            return findGamesByIdsGameNameGameStatus(gameIds, gameName, status);
+        }
+        else
+        {
+            return findIntersectionGameNameGameStatus(gameName, status);
+        }
+    }
+
+    /**
+     * Writes the games matching the game name and status filters as one JSON document per line,
+     * reading them through a cursor like {@link #streamAllGames}. Writes block while the client
+     * is behind, so a slow reader holds back the response instead of buffering it.
+     */
+    @Transactional(readOnly = true)
+    public void streamGamesFiltered(String gameName, String stringStatus, OutputStream outputStream) throws IOException {
+
+        GameStatus status = checkGameStatusValue(stringStatus);
+
+        try (Stream<GameDto> games = streamIntersectionGameNameGameStatus(gameName, status)) {
+            writeGames(games.iterator(), outputStream);
+        }
+
+        logger.debug("GameService: streamGamesFiltered successfully done");
+    }
+
+    /**
+     * Ids of the player's games to stream with {@link #streamGamesFiltered(List, String, String, OutputStream)},
+     * resolved before the response starts. Returns null when PlayerService cannot answer.
+     */
+    public List<Long> getGameIdsFiltered(String gameName, String stringStatus, String playerName) {
+
+        if(!gameName.isEmpty() && !playerMembershipReplica.isReady()){
+            return findGameIdsByPlayerNameConcurrently(playerName, gameName, checkGameStatusValue(stringStatus));
+        }
+
+        return getGameIdsByPlayerName(playerName);
+    }
+
+    /**
+     * Writes the games with the given ids matching the game name and status filters as one JSON
+     * document per line, querying and writing one chunk of ids at a time.
+     */
+    public void streamGamesFiltered(List<Long> gameIds, String gameName, String stringStatus, OutputStream outputStream) throws IOException {
+
+        GameStatus status = checkGameStatusValue(stringStatus);
+
+        for (List<Long> chunk : chunkIds(gameIds)) {
+            writeGames(findChunkGameNameGameStatus(chunk, gameName, status).iterator(), outputStream);
         }
 
-        return gameDtos.stream().map(GameDto::new).collect(Collectors.toList());
+        logger.debug("GameService: streamGamesFiltered by ids successfully done");
     }
 
-    private List<Game> findIntersectionGameNameGameStatus(String gameName, GameStatus status) {
+    private void writeGames(Iterator<GameDto> games, OutputStream outputStream) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(GameDto.class);
+
+        while (games.hasNext()) {
+            outputStream.write(writer.writeValueAsBytes(games.next()));
+            outputStream.write(NDJSON_LINE_SEPARATOR);
+        }
+
+        outputStream.flush();
+    }
+
+    /**
+     * Loads the games present in both the player's games and the games with the game name, see
+     * {@link #findGameIdsByPlayerNameConcurrently}.
+     */
+    private List<GameDto> findGamesByPlayerNameConcurrently(String playerName, String gameName, GameStatus status) {
+
+        List<Long> gameIds = findGameIdsByPlayerNameConcurrently(playerName, gameName, status);
+
+        return gameIds == null ? null : findGamesByIdsGameNameGameStatus(gameIds, "", null);
+    }
+
+    /**
+     * Asks PlayerService for the player's game ids on the task executor while the ids of games
+     * with the game name, which is selective and indexed, are queried locally, and returns the ids
+     * present in both. Without a game name the local query could return most of the table, so that
+     * case keeps pushing the ids into the query instead.
+     */
+    private List<Long> findGameIdsByPlayerNameConcurrently(String playerName, String gameName, GameStatus status) {
+
+        CompletableFuture<List<Long>> gameIdsFuture;
+
+        try {
+            gameIdsFuture = CompletableFuture.supplyAsync(() -> getGameIdsByPlayerName(playerName), filterExecutor);
+        }
+        catch (RejectedExecutionException e) {
+            logger.debug("GameService: filter executor saturated, getGameIdsByPlayerName runs on the request thread");
+
+            gameIdsFuture = CompletableFuture.completedFuture(getGameIdsByPlayerName(playerName));
+        }
+
+        List<Long> ids = status != null ? gameRepository.findIdsByNameAndStatus(gameName, status) : gameRepository.findIdsByName(gameName);
+        List<Long> gameIds = gameIdsFuture.join();
+
+        if(gameIds == null)
+        {
+            return null;
+        }
+
+        Set<Long> playerGameIds = new HashSet<>(gameIds);
+
+        return ids.stream().filter(playerGameIds::contains).collect(Collectors.toList());
+    }
+
+    private List<GameDto> findIntersectionGameNameGameStatus(String gameName, GameStatus status) {
         if(!gameName.isEmpty()){
             if(status!=null){
-                return gameRepository.findAllByNameAndStatus(gameName, status);
+                return gameRepository.findGameDtosByNameAndStatus(gameName, status);
             }
             else {
-                return gameRepository.findAllByName(gameName);
+                return gameRepository.findGameDtosByName(gameName);
             }
         }
         else {
             if(status!=null){
-                return gameRepository.findAllByStatus(status);
+                return gameRepository.findGameDtosByStatus(status);
             }
             else {
-                return  (List<Game>) gameRepository.findAll();
+                return gameRepository.findAllGameDtos();
             }
         }
     }
 
-    private List<Game> findIntersectionGameIdGameNameGameStatus(List<Long> listIds, List<Game> gameDtoList){
+    private Stream<GameDto> streamIntersectionGameNameGameStatus(String gameName, GameStatus status) {
+        if(!gameName.isEmpty()){
+            if(status!=null){
+                return gameRepository.streamGameDtosByNameAndStatus(gameName, status);
+            }
+            else {
+                return gameRepository.streamGameDtosByName(gameName);
+            }
+        }
+        else {
+            if(status!=null){
+                return gameRepository.streamGameDtosByStatus(status);
+            }
+            else {
+                return gameRepository.streamAllGameDtos();
+            }
+        }
+    }
 
-        List<Long> gameIds = gameDtoList.stream().map(Game::getId).collect(Collectors.toList());
-        List<Long> resultIds = gameIds.stream().distinct().filter(listIds::contains).collect(Collectors.toList());
+    /**
+     * Pushes the player's game ids into the query as bounded {@code id IN (...)} chunks,
+     * so only games matching every filter are ever loaded.
+     */
+    private List<GameDto> findGamesByIdsGameNameGameStatus(List<Long> listIds, String gameName, GameStatus status) {
+
+        List<GameDto> games = new ArrayList<>();
+
+        for (List<Long> chunk : chunkIds(listIds)) {
+            games.addAll(findChunkGameNameGameStatus(chunk, gameName, status));
+        }
 
-        return gameDtoList.stream().filter(listElement -> resultIds.contains(listElement.getId())).collect(
-                Collectors.toList());
+        return games;
+    }
+
+    private List<List<Long>> chunkIds(Collection<Long> listIds) {
+
+        List<Long> ids = listIds.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList());
+        List<List<Long>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+
+        return chunks;
+    }
+
+    private List<GameDto> findChunkGameNameGameStatus(List<Long> ids, String gameName, GameStatus status) {
+        if(!gameName.isEmpty()){
+            if(status!=null){
+                return gameRepository.findGameDtosByNameAndStatusAndIdIn(gameName, status, ids);
+            }
+            else {
+                return gameRepository.findGameDtosByNameAndIdIn(gameName, ids);
+            }
+        }
+        else {
+            if(status!=null){
+                return gameRepository.findGameDtosByStatusAndIdIn(status, ids);
+            }
+            else {
+                return gameRepository.findGameDtosByIdIn(ids);
+            }
+        }
     }
 
     private GameStatus checkGameStatusValue(String stringStatus)
@@ -226,6 +685,13 @@ public class GameService {
 
     private List<Long> getGameIdsByPlayerName(String playerName) {
 
+        if(playerMembershipReplica.isReady())
+        {
+            logger.debug("GameService: getGameIdsByPlayerName served by PlayerMembershipReplica");
+
+            return playerMembershipReplica.getGameIds(playerName);
+        }
+
         HttpHeaders headers = new HttpHeaders();
         HttpEntity<Void> entity = new HttpEntity<Void>(null, headers);
 
@@ -234,11 +700,16 @@ public class GameService {
         logger.debug("GameService: getGameIdsByPlayerName successfully sent request");
 
         try {
-            ResponseEntity<List<Long>> response = restTemplate.exchange(CommunicationUtil.createURLWithPort("player/gameIds?name={name}"), HttpMethod.GET, entity, responseList, playerName);
+            ResponseEntity<List<Long>> response = playerServiceResilience.callIdempotent(() -> restTemplate.exchange(
+                    CommunicationUtil.createURLWithPort("player/gameIds?name={name}"), HttpMethod.GET, entity, responseList, playerName));
 
-            return response.getBody();
+            return response.getBody() == null ? new ArrayList<>() : response.getBody();
         }
         catch (Exception e){
+
+            logger.debug("GameService: getGameIdsByPlayerName problem with PlayerService");
+            logger.debug(e.getMessage());
+
             return null;
         }
     }
@@ -0,0 +1,52 @@
+package GameService.core.domein.service;
+
+import GameService.core.domein.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically recounts the games per status and corrects the counters served by
+ * {@code GET /game/stats}, in case a write outside the service, such as a manual fix
+ * in the database, left them behind.
+ *
+ * Writers wait while the games are counted. When a counter is corrected the game version
+ * is bumped as well, so cached stats responses stop matching their ETag.
+ */
+@Component
+public class GameStatsReconciler {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final GameRepository gameRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public GameStatsReconciler(GameRepository gameRepository, TransactionTemplate transactionTemplate) {
+
+        this.gameRepository = gameRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${game.stats.reconcile-initial-delay-ms:60000}",
+               fixedDelayString = "${game.stats.reconcile-delay-ms:600000}")
+    public void reconcile() {
+
+        Boolean corrected = transactionTemplate.execute(status -> {
+            if (gameRepository.reconcileStatusCounts()) {
+                gameRepository.incrementVersion();
+                return true;
+            }
+            return false;
+        });
+
+        if (Boolean.TRUE.equals(corrected)) {
+            logger.debug("GameStatsReconciler: game status counts corrected");
+        }
+        else {
+            logger.debug("GameStatsReconciler: reconcile successfully done");
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package GameService.core.domein.service;
+
+import GameService.core.domein.dto.GameRegistrationDto;
+import GameService.core.domein.dto.PlayerChangeDto;
+import GameService.core.domein.dto.PlayerMembershipSnapshotDto;
+import GameService.core.util.CommunicationUtil;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Local copy of PlayerService's player name to game ids memberships, so filtering by player
+ * name does not need a request to PlayerService.
+ *
+ * The first sync loads a full snapshot, later syncs apply the change feed of every PlayerService
+ * shard after the last sequence seen on that shard. Every change states whether a pair is registered after it, so applying a change twice
+ * is harmless. A shard whose feed restarted, as when its database was recreated or restored, answers
+ * with another epoch or a last sequence below the one applied; the replica then loads a new snapshot. The replica is only used while the last successful sync is younger than
+ * {@code game.player-replica.max-staleness}. Disabled with {@code game.player-replica.enabled=false}.
+ */
+@Component
+public class PlayerMembershipReplica {
+
+    private static final ParameterizedTypeReference<List<PlayerChangeDto>> responseList = new ParameterizedTypeReference<List<PlayerChangeDto>>() {};
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final RestTemplate restTemplate;
+
+    private final PlayerServiceResilience playerServiceResilience;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final Duration maxStaleness;
+
+    private volatile Map<String, Set<Long>> gameIdsByPlayerName = new ConcurrentHashMap<>();
+
+    private volatile long[] sequences = new long[1];
+
+    // Null while PlayerService sends no epochs
+    private volatile List<String> epochs;
+
+    private volatile Instant lastSyncAt;
+
+    private volatile String versionTag = "0";
+
+    public PlayerMembershipReplica(RestTemplate restTemplate, PlayerServiceResilience playerServiceResilience,
+            @Value("${game.player-replica.enabled:true}") boolean enabled,
+            @Value("${game.player-replica.batch-size:1000}") int batchSize,
+            @Value("${game.player-replica.max-staleness:30s}") Duration maxStaleness) {
+
+        this.restTemplate = restTemplate;
+        this.playerServiceResilience = playerServiceResilience;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxStaleness = maxStaleness;
+    }
+
+    public boolean isReady() {
+
+        Instant syncedAt = lastSyncAt;
+
+        return enabled && syncedAt != null && syncedAt.plus(maxStaleness).isAfter(Instant.now());
+    }
+
+    public List<Long> getGameIds(String playerName) {
+
+        return new ArrayList<>(gameIdsByPlayerName.getOrDefault(playerName, Collections.emptySet()));
+    }
+
+    /**
+     * Epoch and last applied sequence of every shard, changes with every applied change and every
+     * resync. Rebuilt by the sync after the data it names is applied, so a reader never sees the
+     * epochs of one snapshot with the sequences of another.
+     */
+    public String getVersionTag() {
+
+        return versionTag;
+    }
+
+    @Scheduled(initialDelayString = "${game.player-replica.sync-initial-delay-ms:0}",
+               fixedDelayString = "${game.player-replica.sync-delay-ms:500}")
+    public void sync() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            if (lastSyncAt == null) {
+                resync();
+            }
+            else {
+                catchUp();
+            }
+
+            lastSyncAt = Instant.now();
+        }
+        catch (Exception e) {
+
+            logger.debug("PlayerMembershipReplica: sync problem with PlayerService");
+            logger.debug(e.getMessage());
+        }
+    }
+
+    private void resync() {
+
+        PlayerMembershipSnapshotDto snapshot = playerServiceResilience.call(() -> restTemplate.getForObject(
+                CommunicationUtil.createURLWithPort("player/memberships"), PlayerMembershipSnapshotDto.class));
+
+        Map<String, Set<Long>> memberships = new ConcurrentHashMap<>();
+
+        if (snapshot != null && snapshot.getPlayers() != null) {
+            for (GameRegistrationDto player : snapshot.getPlayers()) {
+                memberships.computeIfAbsent(player.getName(), name -> ConcurrentHashMap.newKeySet()).add(player.getGameId());
+            }
+        }
+
+        gameIdsByPlayerName = memberships;
+
+        epochs = snapshot == null ? null : snapshot.getEpochs();
+
+        if (snapshot != null && snapshot.getSequences() != null && !snapshot.getSequences().isEmpty()) {
+            sequences = snapshot.getSequences().stream().mapToLong(Long::longValue).toArray();
+        }
+        else {
+            sequences = new long[]{snapshot == null || snapshot.getSequence() == null ? 0L : snapshot.getSequence()};
+        }
+
+        updateVersionTag();
+
+        logger.debug("PlayerMembershipReplica: resync loaded {} players up to sequences {}", memberships.size(), Arrays.toString(sequences));
+    }
+
+    private void catchUp() {
+
+        for (int shard = 0; shard < sequences.length; shard++) {
+            if (!catchUp(shard)) {
+                logger.debug("PlayerMembershipReplica: change feed of shard {} restarted, resync", shard);
+                resync();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies the shard's changes after its last applied sequence. Returns false, without applying
+     * the answer, when the shard's feed restarted since the snapshot.
+     */
+    private boolean catchUp(int shard) {
+
+        List<PlayerChangeDto> changes;
+
+        do {
+            long after = sequences[shard];
+            // A PlayerService with a single shard is asked the way it was before sharding
+            String url = sequences.length == 1 ? "player/changes?after={after}&limit={limit}" :
+                    "player/changes?after={after}&limit={limit}&shard={shard}";
+            ResponseEntity<List<PlayerChangeDto>> response = playerServiceResilience.call(() -> restTemplate.exchange(
+                    CommunicationUtil.createURLWithPort(url), HttpMethod.GET, null, responseList, after, batchSize, shard));
+
+            if (isRestarted(shard, after, response.getHeaders())) {
+                return false;
+            }
+
+            changes = response.getBody();
+
+            if (changes == null) {
+                return true;
+            }
+
+            changes.forEach(this::apply);
+
+            if (!changes.isEmpty()) {
+                long[] updatedSequences = sequences.clone();
+                updatedSequences[shard] = changes.get(changes.size() - 1).getSequence();
+                sequences = updatedSequences;
+                updateVersionTag();
+
+                logger.debug("PlayerMembershipReplica: applied {} changes up to sequence {} of shard {}", changes.size(), sequences[shard], shard);
+            }
+        }
+        while (changes.size() >= batchSize);
+
+        return true;
+    }
+
+    private void updateVersionTag() {
+
+        List<String> snapshotEpochs = epochs;
+        StringBuilder tag = new StringBuilder();
+
+        for (int shard = 0; shard < sequences.length; shard++) {
+            if (shard > 0) {
+                tag.append('_');
+            }
+            if (snapshotEpochs != null && shard < snapshotEpochs.size()) {
+                tag.append(snapshotEpochs.get(shard)).append('.');
+            }
+            tag.append(sequences[shard]);
+        }
+
+        versionTag = tag.toString();
+    }
+
+    private boolean isRestarted(int shard, long after, HttpHeaders headers) {
+
+        String epoch = headers.getFirst(PlayerChangeDto.EPOCH_HEADER);
+        String lastSequence = headers.getFirst(PlayerChangeDto.LAST_SEQUENCE_HEADER);
+        List<String> snapshotEpochs = epochs;
+
+        if (epoch != null && snapshotEpochs != null && shard < snapshotEpochs.size() && !epoch.equals(snapshotEpochs.get(shard))) {
+            return true;
+        }
+
+        return lastSequence != null && Long.parseLong(lastSequence) < after;
+    }
+
+    private void apply(PlayerChangeDto change) {
+
+        if (change.isRegistered()) {
+            gameIdsByPlayerName.computeIfAbsent(change.getName(), name -> ConcurrentHashMap.newKeySet()).add(change.getGameId());
+        }
+        else {
+            gameIdsByPlayerName.computeIfPresent(change.getName(), (name, gameIds) -> {
+                gameIds.remove(change.getGameId());
+                return gameIds.isEmpty() ? null : gameIds;
+            });
+        }
+    }
+}
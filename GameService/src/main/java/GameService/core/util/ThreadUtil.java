@@ -0,0 +1,25 @@
+package GameService.core.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+public class ThreadUtil {
+
+    /**
+     * Executor for work the service hands off its request threads, following
+     * {@code spring.threads.virtual.enabled}: a virtual thread per task when enabled, otherwise a
+     * cached pool of daemon platform threads.
+     */
+    public static ExecutorService newExecutor(boolean virtualThreads, String namePrefix) {
+
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+        }
+
+        ThreadFactory threadFactory = Thread.ofPlatform().name(namePrefix, 0).daemon().factory();
+
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+}
@@ -3,26 +3,56 @@ package GameService.core;
 import static GameService.core.config.ApplicationUrls.REST_API_V1_GAME;
 import static GameService.core.util.CommunicationUtil.createURLWithPort;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
+import GameService.core.domein.cache.GameCache;
+import GameService.core.domein.dto.GameChangeDto;
+import GameService.core.domein.dto.GameChangesDto;
 import GameService.core.domein.dto.GameCreateDto;
 import GameService.core.domein.dto.GameCreateDto.GameCreateDtoBuilder;
 import GameService.core.domein.dto.GameDto;
 import GameService.core.domein.dto.GameDto.GameDtoBuilder;
+import GameService.core.domein.dto.GamePageDto;
+import GameService.core.domein.dto.GameRegistrationDto;
+import GameService.core.domein.dto.GameRegistrationResultDto;
+import GameService.core.domein.dto.GameRegistrationStatusDto;
+import GameService.core.domein.dto.GameStatsDto;
+import GameService.core.domein.dto.PlayerChangeDto;
+import GameService.core.domein.dto.PlayerMembershipSnapshotDto;
+import GameService.core.domein.model.GameRegistrationOutbox;
 import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.RegistrationStatus;
+import GameService.core.domein.repository.GameRegistrationOutboxRepository;
+import GameService.core.domein.repository.GameRepository;
+import GameService.core.domein.service.GameRegistrationDispatcher;
+import GameService.core.domein.service.GameStatsReconciler;
+import GameService.core.domein.service.PlayerMembershipReplica;
+import GameService.core.domein.service.PlayerServiceResilience;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
@@ -33,17 +63,25 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 @Sql(scripts = {"/sql/game_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = {"/sql/game_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
 @RunWith(SpringRunner.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "game.registration.dispatch-initial-delay-ms=3600000",
+        "game.registration.max-attempts=1",
+        "game.stats.reconcile-initial-delay-ms=3600000",
+        "game.player-replica.enabled=false"
+})
 public class GameControllerTest {
 
     @LocalServerPort
@@ -54,6 +92,33 @@ public class GameControllerTest {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private GameRegistrationDispatcher gameRegistrationDispatcher;
+
+    @Autowired
+    private PlayerServiceResilience playerServiceResilience;
+
+    @Autowired
+    private GameStatsReconciler gameStatsReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameRegistrationOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     HttpHeaders headers = new HttpHeaders();
 
     private MockRestServiceServer mockServer;
@@ -63,29 +128,48 @@ public class GameControllerTest {
             new ParameterizedTypeReference<List<GameDto>>() {
             };
 
+    private static final ParameterizedTypeReference<List<Long>> responseLongList =
+            new ParameterizedTypeReference<List<Long>>() {
+            };
+
     @Before
     public void init() {
         testRestTemplate = new TestRestTemplate();
         mockServer = MockRestServiceServer.createServer(restTemplate);
+        gameCache.invalidateAll();
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
     }
 
     @Test
-    public void testShouldCreateGame() throws URISyntaxException {
+    public void testShouldCreateGame() throws URISyntaxException, JsonProcessingException {
 
         GameCreateDto gameCreateDto = standardGameCreateDtoBuilder().build();
         HttpEntity<GameCreateDto> entity = new HttpEntity<>(gameCreateDto, headers);
 
+        ResponseEntity<GameRegistrationStatusDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, entity, GameRegistrationStatusDto.class);
+
         mockServer.expect(ExpectedCount.once(),
-                          requestTo(new URI(createURLWithPort("player/registration" ))))
+                          requestTo(new URI(createURLWithPort("player/registration/batch" ))))
                 .andExpect(method(HttpMethod.POST))
-                .andRespond(withStatus(HttpStatus.CREATED)
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andRespond(withStatus(HttpStatus.OK)
                                     .contentType(MediaType.APPLICATION_JSON)
+                                    .body(registrationResults(response.getBody(), "CREATED"))
                 );
 
-        ResponseEntity<Void> response = testRestTemplate.exchange(
-                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, entity, Void.class);
+        assertThat(response.getStatusCodeValue()).isEqualTo(202);
+        assertThat(response.getBody().getStatus()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(response.getHeaders().getLocation()).isNotNull();
+
+        gameRegistrationDispatcher.dispatch();
+        mockServer.verify();
 
-        assertThat(response.getStatusCodeValue()).isEqualTo(201);
+        ResponseEntity<GameRegistrationStatusDto> status = testRestTemplate.exchange(
+                createTestURLWithPort(response.getHeaders().getLocation().toString()), HttpMethod.GET, null, GameRegistrationStatusDto.class);
+
+        assertThat(status.getStatusCodeValue()).isEqualTo(200);
+        assertThat(status.getBody().getStatus()).isEqualTo(RegistrationStatus.DONE);
     }
 
     @Test
@@ -95,15 +179,72 @@ public class GameControllerTest {
         HttpEntity<GameCreateDto> entity = new HttpEntity<>(gameCreateDto, headers);
 
         mockServer.expect(ExpectedCount.once(),
-                          requestTo(new URI(createURLWithPort("player/registration" ))))
+                          requestTo(new URI(createURLWithPort("player/registration/batch" ))))
                 .andExpect(method(HttpMethod.POST))
                 .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR)
                 );
 
-        ResponseEntity<Void> response = testRestTemplate.exchange(
-                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, entity, Void.class);
+        ResponseEntity<GameRegistrationStatusDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, entity, GameRegistrationStatusDto.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(202);
 
-        assertThat(response.getStatusCodeValue()).isEqualTo(500);
+        gameRegistrationDispatcher.dispatch();
+        mockServer.verify();
+
+        ResponseEntity<GameRegistrationStatusDto> status = testRestTemplate.exchange(
+                createTestURLWithPort(response.getHeaders().getLocation().toString()), HttpMethod.GET, null, GameRegistrationStatusDto.class);
+
+        assertThat(status.getBody().getStatus()).isEqualTo(RegistrationStatus.FAILED);
+
+        ResponseEntity<GameDto> game = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/" + response.getBody().getGameId(), HttpMethod.GET, null, GameDto.class);
+
+        assertThat(game.getStatusCodeValue()).isEqualTo(404);
+    }
+
+    @Test
+    public void testShouldFailRegistrationRejectedByPlayerService() throws URISyntaxException, JsonProcessingException {
+
+        HttpEntity<GameCreateDto> entity = new HttpEntity<>(standardGameCreateDtoBuilder().build(), headers);
+
+        ResponseEntity<GameRegistrationStatusDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, entity, GameRegistrationStatusDto.class);
+
+        mockServer.expect(ExpectedCount.once(),
+                          requestTo(new URI(createURLWithPort("player/registration/batch" ))))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(registrationResults(response.getBody(), "INVALID"))
+                );
+
+        gameRegistrationDispatcher.dispatch();
+        mockServer.verify();
+
+        ResponseEntity<GameRegistrationStatusDto> status = testRestTemplate.exchange(
+                createTestURLWithPort(response.getHeaders().getLocation().toString()), HttpMethod.GET, null, GameRegistrationStatusDto.class);
+
+        assertThat(status.getBody().getStatus()).isEqualTo(RegistrationStatus.FAILED);
+        assertThat(gameRepository.findById(response.getBody().getGameId())).isEmpty();
+    }
+
+    @Test
+    public void testShouldNotSendRegistrationClaimedByAnotherDispatcher() {
+
+        HttpEntity<GameCreateDto> entity = new HttpEntity<>(standardGameCreateDtoBuilder().build(), headers);
+
+        ResponseEntity<GameRegistrationStatusDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, entity, GameRegistrationStatusDto.class);
+
+        GameRegistrationOutbox registration = outboxRepository.findFirstByGameIdOrderByIdDesc(response.getBody().getGameId()).get();
+        transactionTemplate.executeWithoutResult(transaction -> outboxRepository.claim(registration.getId(),
+                registration.getVersion(), RegistrationStatus.PENDING, LocalDateTime.now().plusMinutes(1)));
+
+        gameRegistrationDispatcher.dispatch();
+        mockServer.verify();
+
+        assertThat(outboxRepository.findById(registration.getId()).get().getStatus()).isEqualTo(RegistrationStatus.PENDING);
     }
 
     @Test
@@ -118,6 +259,183 @@ public class GameControllerTest {
         assertThat(response.getBody().size()).isEqualTo(7);
     }
 
+    @Test
+    public void testShouldReturnNotModifiedWhileGamesUnchanged(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<List<GameDto>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.GET, entity, responseGameDtoList);
+        String eTag = response.getHeaders().getETag();
+
+        assertThat(eTag).isNotNull().startsWith("W/");
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(eTag);
+        HttpEntity<Void> conditionalEntity = new HttpEntity<>(null, conditionalHeaders);
+
+        ResponseEntity<List<GameDto>> notModified = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.GET, conditionalEntity, responseGameDtoList);
+
+        assertThat(notModified.getStatusCodeValue()).isEqualTo(304);
+        assertThat(notModified.getBody()).isNull();
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT,
+                                  new HttpEntity<>(standardGameDtoBuilder().build(), headers), GameDto.class);
+
+        ResponseEntity<GameDto> modified = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, conditionalEntity, GameDto.class);
+
+        assertThat(modified.getStatusCodeValue()).isEqualTo(200);
+        assertThat(modified.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    public void testShouldTagGameWithVersionOfServedRow(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<GameDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, entity, GameDto.class);
+        String eTag = response.getHeaders().getETag();
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(eTag);
+        HttpEntity<Void> conditionalEntity = new HttpEntity<>(null, conditionalHeaders);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/2", HttpMethod.PUT,
+                                  new HttpEntity<>(standardGameDtoBuilder().build(), headers), GameDto.class);
+
+        ResponseEntity<GameDto> otherModified = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, conditionalEntity, GameDto.class);
+
+        assertThat(otherModified.getStatusCodeValue()).isEqualTo(304);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT,
+                                  new HttpEntity<>(standardGameDtoBuilder().build(), headers), GameDto.class);
+
+        ResponseEntity<GameDto> modified = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, conditionalEntity, GameDto.class);
+
+        assertThat(modified.getStatusCodeValue()).isEqualTo(200);
+        assertThat(modified.getBody()).isEqualTo(standardGameDtoBuilder().build());
+        assertThat(modified.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    public void testShouldGetGameChangesSinceWatermark(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<GameChangesDto> fullSync = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/changes", HttpMethod.GET, entity, GameChangesDto.class);
+
+        assertThat(fullSync.getStatusCodeValue()).isEqualTo(200);
+        assertThat(fullSync.getBody().getChanges().size()).isEqualTo(7);
+
+        LocalDateTime beforeChanges = LocalDateTime.now().minusSeconds(1);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT,
+                                  new HttpEntity<>(standardGameDtoBuilder().build(), headers), GameDto.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/2", HttpMethod.DELETE, entity, HttpStatus.class);
+
+        ResponseEntity<GameChangesDto> changes = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/changes?since={since}", HttpMethod.GET, entity, GameChangesDto.class,
+                fullSync.getBody().getNextSince());
+
+        assertThat(changes.getStatusCodeValue()).isEqualTo(200);
+        assertThat(changes.getBody().getChanges()).extracting(GameChangeDto::getId).containsExactly(1L, 2L);
+        assertThat(changes.getBody().getChanges()).extracting(GameChangeDto::isDeleted).containsExactly(false, true);
+        assertThat(changes.getBody().getChanges().get(0).getUpdatedAt()).isNotNull();
+        assertThat(changes.getBody().getNextSince()).isEqualTo(fullSync.getBody().getNextSince() + 2);
+
+        ResponseEntity<GameChangesDto> changesByTime = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/changes?since={since}", HttpMethod.GET, entity, GameChangesDto.class,
+                beforeChanges.toString());
+
+        assertThat(changesByTime.getBody().getChanges()).extracting(GameChangeDto::getId).containsExactly(1L, 2L);
+
+        ResponseEntity<GameChangesDto> upToDate = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/changes?since={since}", HttpMethod.GET, entity, GameChangesDto.class,
+                changes.getBody().getNextSince());
+
+        assertThat(upToDate.getBody().getChanges()).isEmpty();
+        assertThat(upToDate.getBody().getNextSince()).isEqualTo(changes.getBody().getNextSince());
+    }
+
+    @Test
+    public void testShouldGetGameStatsFromCounters(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+        gameStatsReconciler.reconcile();
+
+        ResponseEntity<GameStatsDto> reconciled = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/stats", HttpMethod.GET, entity, GameStatsDto.class);
+
+        assertThat(reconciled.getStatusCodeValue()).isEqualTo(200);
+        assertThat(reconciled.getBody().getTotal()).isEqualTo(7L);
+        assertThat(reconciled.getBody().getByStatus())
+                .containsEntry(GameStatus.NEW, 6L).containsEntry(GameStatus.FINISHED, 1L).containsEntry(GameStatus.DROPED, 0L);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT,
+                                  new HttpEntity<>(standardGameDtoBuilder().build(), headers), GameDto.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/2", HttpMethod.DELETE, entity, HttpStatus.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST,
+                                  new HttpEntity<>(standardGameCreateDtoBuilder().build(), headers), GameRegistrationStatusDto.class);
+
+        ResponseEntity<GameStatsDto> counted = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/stats", HttpMethod.GET, entity, GameStatsDto.class);
+
+        assertThat(counted.getBody().getTotal()).isEqualTo(7L);
+        assertThat(counted.getBody().getByStatus())
+                .containsEntry(GameStatus.NEW, 5L).containsEntry(GameStatus.FINISHED, 1L).containsEntry(GameStatus.DROPED, 1L);
+
+        jdbcTemplate.update("UPDATE game_status_count SET game_count = 100 WHERE status = 'NEW'");
+        gameStatsReconciler.reconcile();
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(counted.getHeaders().getETag());
+
+        ResponseEntity<GameStatsDto> corrected = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/stats", HttpMethod.GET, new HttpEntity<>(null, conditionalHeaders), GameStatsDto.class);
+
+        assertThat(corrected.getStatusCodeValue()).isEqualTo(200);
+        assertThat(corrected.getBody().getByStatus()).containsEntry(GameStatus.NEW, 5L);
+    }
+
+    @Test
+    public void testShouldGetGamesPage(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<GamePageDto> firstPage = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/page?size=5", HttpMethod.GET, entity, GamePageDto.class);
+
+        assertThat(firstPage.getStatusCodeValue()).isEqualTo(200);
+        assertThat(firstPage.getBody().getGames().size()).isEqualTo(5);
+        assertThat(firstPage.getBody().getNextCursor()).isEqualTo(5L);
+
+        ResponseEntity<GamePageDto> lastPage = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/page?size=5&afterId=5", HttpMethod.GET, entity, GamePageDto.class);
+
+        assertThat(lastPage.getStatusCodeValue()).isEqualTo(200);
+        assertThat(lastPage.getBody().getGames().size()).isEqualTo(2);
+        assertThat(lastPage.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testShouldStreamAllGames(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/stream", HttpMethod.GET, entity, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().split("\n")).hasSize(7);
+    }
+
     @Test
     public void testShouldGetGameById(){
 
@@ -144,6 +462,35 @@ public class GameControllerTest {
         assertThat(response.getBody()).isNull();
     }
 
+    @Test
+    public void testShouldGetExistingGameIds(){
+
+        HttpEntity<List<Long>> entity = new HttpEntity<>(Arrays.asList(1L, 3L, 666L), headers);
+
+        ResponseEntity<List<Long>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/exists", HttpMethod.POST, entity, responseLongList);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    public void testShouldGetExistingGameIdsAsCbor() throws IOException {
+
+        CBORMapper cborMapper = new CBORMapper();
+        HttpHeaders cborHeaders = new HttpHeaders();
+        cborHeaders.setContentType(MediaType.APPLICATION_CBOR);
+        cborHeaders.setAccept(Collections.singletonList(MediaType.APPLICATION_CBOR));
+        HttpEntity<byte[]> entity = new HttpEntity<>(cborMapper.writeValueAsBytes(Arrays.asList(1L, 3L, 666L)), cborHeaders);
+
+        ResponseEntity<byte[]> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/exists", HttpMethod.POST, entity, byte[].class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cborMapper.readValue(response.getBody(), Long[].class)).containsExactlyInAnyOrder(1L, 3L);
+    }
+
     @Test
     public void testShouldTryDeleteGameByIdWhichDoNotExist(){
 
@@ -181,6 +528,38 @@ public class GameControllerTest {
         assertThat(response.getBody().getStatus()).isEqualTo(GameStatus.DROPED);
     }
 
+    @Test
+    public void testShouldGetUpdatedGameAfterCachedRead(){
+
+        HttpEntity<Void> getEntity = new HttpEntity<>(null, headers);
+        HttpEntity<GameDto> putEntity = new HttpEntity<>(standardGameDtoBuilder().build(), headers);
+        long missCount = gameCache.stats().missCount();
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, getEntity, GameDto.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT, putEntity, GameDto.class);
+
+        ResponseEntity<GameDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, getEntity, GameDto.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody().getName()).isEqualTo("GAME!");
+        assertThat(gameCache.stats().missCount() - missCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testShouldNotGetDeletedGameAfterCachedRead(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, entity, GameDto.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.DELETE, entity, GameDto.class);
+
+        ResponseEntity<GameDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.GET, entity, GameDto.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(404);
+    }
+
     @Test
     public void testShouldTryUpdateGameByIdWhichNotExist(){
 
@@ -214,6 +593,50 @@ public class GameControllerTest {
         assertThat(Objects.requireNonNull(response.getBody()).size()).isEqualTo(1);
     }
 
+    @Test
+    public void testShouldAskPlayerServiceForCborFirst() throws URISyntaxException, JsonProcessingException {
+
+        HttpEntity<GameDto> entity = new HttpEntity<>(null, headers);
+
+        mockServer.expect(ExpectedCount.once(),
+                          requestTo(new URI(createURLWithPort("player/gameIds?name=ee"))))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.ACCEPT, startsWith(MediaType.APPLICATION_CBOR_VALUE)))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_CBOR)
+                            .body(new CBORMapper().writeValueAsBytes(Collections.singletonList(3L))));
+
+        ResponseEntity<List<GameDto>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/filter?gameName=GAME3&status=NEW&playerName=ee", HttpMethod.GET, entity, responseGameDtoList);
+
+        mockServer.verify();
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(Objects.requireNonNull(response.getBody()).size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testShouldGetGamesByFilterGameNameStatusPlayerNameWithManyGameIds() throws URISyntaxException, JsonProcessingException {
+
+        HttpEntity<GameDto> entity = new HttpEntity<>(null, headers);
+        List<Long> gameIds = new ArrayList<>();
+        for (long id = 2500; id > 0; id--) {
+            gameIds.add(id);
+        }
+
+        mockServer.expect(ExpectedCount.once(),
+                          requestTo(new URI(createURLWithPort("player/gameIds?name=ee"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(gameIds)));
+
+        ResponseEntity<List<GameDto>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/filter?gameName=GAME3&status=NEW&playerName=ee", HttpMethod.GET, entity, responseGameDtoList);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(Objects.requireNonNull(response.getBody()).size()).isEqualTo(4);
+    }
+
     @Test
     public void testShouldGetGamesByFilterGameNameStatusPlayerNameAndPlayerServiceNotWorking() throws URISyntaxException {
 
@@ -227,8 +650,51 @@ public class GameControllerTest {
         ResponseEntity<List<GameDto>> response = testRestTemplate.exchange(
                 createTestURLWithPort(REST_API_V1_GAME) + "/filter?gameName=GAME3&status=NEW&playerName=ee", HttpMethod.GET, entity, responseGameDtoList);
 
+        assertThat(response.getStatusCodeValue()).isEqualTo(503);
+    }
+
+    @Test
+    public void testShouldStreamGamesByFilterGameNameStatusPlayerName() throws URISyntaxException, JsonProcessingException {
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+        List<Long> gameIds = Arrays.asList(3L, 4L, 6L);
+        AtomicReference<String> playerServiceCallThread = new AtomicReference<>();
+
+        mockServer.expect(ExpectedCount.once(),
+                          requestTo(new URI(createURLWithPort("player/gameIds?name=ee"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(request -> {
+                    playerServiceCallThread.set(Thread.currentThread().getName());
+                    return withStatus(HttpStatus.OK)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(mapper.writeValueAsString(gameIds))
+                            .createResponse(request);
+                });
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/filter/stream?gameName=GAME3&status=NEW&playerName=ee", HttpMethod.GET, entity, String.class);
+
         assertThat(response.getStatusCodeValue()).isEqualTo(200);
-        assertThat(Objects.requireNonNull(response.getBody()).size()).isEqualTo(4);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().split("\n")).hasSize(2);
+        assertThat(playerServiceCallThread.get()).startsWith("game-task-");
+    }
+
+    @Test
+    public void testShouldStreamGamesByFilterGameNameStatus() throws JsonProcessingException {
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/filter/stream?gameName=GAME3&status=NEW&playerName=", HttpMethod.GET, entity, String.class);
+
+        List<GameDto> games = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            games.add(mapper.readValue(line, GameDto.class));
+        }
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(games).hasSize(4).allMatch(game -> game.getName().equals("GAME3") && game.getStatus() == GameStatus.NEW);
     }
 
     @Test
@@ -342,6 +808,149 @@ public class GameControllerTest {
         assertThat(Objects.requireNonNull(response.getBody()).size()).isEqualTo(7);
     }
 
+    @Test
+    public void testShouldExposePrometheusMetrics() throws URISyntaxException, JsonProcessingException {
+
+        HttpEntity<GameDto> entity = new HttpEntity<>(null, headers);
+
+        mockServer.expect(ExpectedCount.once(),
+                          requestTo(new URI(createURLWithPort("player/gameIds?name=ee"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(new ArrayList<Long>())));
+
+        testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/filter?gameName=&status=&playerName=ee", HttpMethod.GET, entity, responseGameDtoList);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort("/actuator/prometheus"), HttpMethod.GET, null, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket{application=\"GameService\"")
+                .contains("uri=\"/api/v1/game/filter\"")
+                .contains("http_client_requests_seconds_bucket{")
+                .contains("uri=\"/api/v1/player/gameIds?name={name}\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("repository=\"GameRepository\"")
+                .contains("hikaricp_connections_active{application=\"GameService\",pool=\"GameServicePool\"")
+                .contains("resilience4j_circuitbreaker_state{application=\"GameService\",name=\"playerService\"")
+                .contains("resilience4j_bulkhead_available_concurrent_calls{application=\"GameService\",name=\"playerService\"")
+                .contains("cache_gets_total{application=\"GameService\",cache=\"game\",")
+                .contains("cache_evictions_total{application=\"GameService\",cache=\"game\",");
+    }
+
+    @Test
+    public void testShouldSyncPlayerMembershipReplica() throws URISyntaxException, JsonProcessingException {
+
+        PlayerMembershipReplica replica = new PlayerMembershipReplica(restTemplate, playerServiceResilience, true, 1000, Duration.ofSeconds(30));
+        PlayerMembershipSnapshotDto snapshot = new PlayerMembershipSnapshotDto(2L, Arrays.asList(
+                new GameRegistrationDto("ee", 3L), new GameRegistrationDto("ee", 4L)));
+        List<PlayerChangeDto> changes = Arrays.asList(
+                new PlayerChangeDto(3L, "ee", 4L, false), new PlayerChangeDto(4L, "ee", 6L, true));
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/memberships"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(snapshot)));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/changes?after=2&limit=1000"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(changes)));
+
+        replica.sync();
+
+        assertThat(replica.isReady()).isTrue();
+        assertThat(replica.getGameIds("ee")).containsExactlyInAnyOrder(3L, 4L);
+
+        replica.sync();
+        mockServer.verify();
+
+        assertThat(replica.getVersionTag()).isEqualTo("4");
+        assertThat(replica.getGameIds("ee")).containsExactlyInAnyOrder(3L, 6L);
+        assertThat(replica.getGameIds("unknown")).isEmpty();
+    }
+
+    @Test
+    public void testShouldResyncPlayerMembershipReplicaWhenChangeFeedRestarts() throws URISyntaxException, JsonProcessingException {
+
+        PlayerMembershipReplica replica = new PlayerMembershipReplica(restTemplate, playerServiceResilience, true, 1000, Duration.ofSeconds(30));
+        PlayerMembershipSnapshotDto snapshot = new PlayerMembershipSnapshotDto(2L, Arrays.asList(
+                new GameRegistrationDto("ee", 3L), new GameRegistrationDto("ee", 4L)));
+        snapshot.setEpochs(Collections.singletonList("first"));
+        PlayerMembershipSnapshotDto recreated = new PlayerMembershipSnapshotDto(1L, Collections.singletonList(
+                new GameRegistrationDto("ee", 7L)));
+        recreated.setEpochs(Collections.singletonList("second"));
+        HttpHeaders newEpoch = new HttpHeaders();
+        newEpoch.set(PlayerChangeDto.EPOCH_HEADER, "second");
+        newEpoch.set(PlayerChangeDto.LAST_SEQUENCE_HEADER, "1");
+        HttpHeaders lowerSequence = new HttpHeaders();
+        lowerSequence.set(PlayerChangeDto.EPOCH_HEADER, "second");
+        lowerSequence.set(PlayerChangeDto.LAST_SEQUENCE_HEADER, "0");
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/memberships"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(mapper.writeValueAsString(snapshot)));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/changes?after=2&limit=1000"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).headers(newEpoch)
+                                    .body(mapper.writeValueAsString(Collections.singletonList(new PlayerChangeDto(2L, "ee", 8L, true)))));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/memberships"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(mapper.writeValueAsString(recreated)));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/changes?after=1&limit=1000"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).headers(lowerSequence)
+                                    .body(mapper.writeValueAsString(Collections.emptyList())));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/memberships"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(mapper.writeValueAsString(recreated)));
+
+        replica.sync();
+        replica.sync();
+
+        assertThat(replica.getVersionTag()).isEqualTo("second.1");
+        assertThat(replica.getGameIds("ee")).containsExactly(7L);
+
+        replica.sync();
+        mockServer.verify();
+
+        assertThat(replica.isReady()).isTrue();
+        assertThat(replica.getGameIds("ee")).containsExactly(7L);
+    }
+
+    @Test
+    public void testShouldTagPlayerMembershipReplicaPerShard() throws URISyntaxException, JsonProcessingException {
+
+        PlayerMembershipReplica replica = new PlayerMembershipReplica(restTemplate, playerServiceResilience, true, 1000, Duration.ofSeconds(30));
+        PlayerMembershipSnapshotDto snapshot = new PlayerMembershipSnapshotDto(2L, Arrays.asList(2L, 1L), Arrays.asList("a", "b"),
+                Collections.singletonList(new GameRegistrationDto("ee", 3L)));
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/memberships"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body(mapper.writeValueAsString(snapshot)));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/changes?after=2&limit=1000&shard=0"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(Collections.emptyList())));
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(createURLWithPort("player/changes?after=1&limit=1000&shard=1"))))
+                .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(Collections.singletonList(new PlayerChangeDto(2L, "ff", 4L, true)))));
+
+        replica.sync();
+        String snapshotTag = replica.getVersionTag();
+
+        replica.sync();
+        mockServer.verify();
+
+        // A change on shard 0 instead would sum to the same 4 with other memberships
+        assertThat(snapshotTag).isEqualTo("a.2_b.1");
+        assertThat(replica.getVersionTag()).isEqualTo("a.2_b.2");
+        assertThat(replica.getGameIds("ff")).containsExactly(4L);
+    }
+
+    private String registrationResults(GameRegistrationStatusDto registration, String status) throws JsonProcessingException {
+
+        return mapper.writeValueAsString(Collections.singletonList(
+                new GameRegistrationResultDto(0, registration.getPlayerName(), registration.getGameId(), status)));
+    }
+
     private String createTestURLWithPort(String uri) {
         return "http://localhost:" + port + uri;
     }
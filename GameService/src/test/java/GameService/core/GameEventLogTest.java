@@ -0,0 +1,374 @@
+package GameService.core;
+
+import static GameService.core.config.ApplicationUrls.REST_API_V1_GAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import GameService.core.domein.dto.GameCreateDto;
+import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.dto.GameEventDto;
+import GameService.core.domein.dto.GameEventSnapshotDto;
+import GameService.core.domein.dto.GameRegistrationStatusDto;
+import GameService.core.domein.eventlog.GameEventLog;
+import GameService.core.domein.model.Game;
+import GameService.core.domein.model.GameEventType;
+import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.GameTombstone;
+import GameService.core.domein.repository.GameRepository;
+import GameService.core.domein.repository.GameTombstoneRepository;
+import GameService.core.domein.service.GameEventLogReconciler;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Runs game writes with the event log enabled in a temporary directory, and reopens copies
+ * of the log files the way a restart would.
+ */
+@Sql(scripts = {"/sql/game_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/sql/game_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "game.registration.dispatch-initial-delay-ms=3600000",
+        "game.player-replica.enabled=false",
+        "game.event-log.enabled=true",
+        "game.event-log.snapshot-min-events=1",
+        "game.event-log.snapshot-delay-ms=3600000"
+})
+public class GameEventLogTest {
+
+    private static final Path directory = createDirectory();
+
+    private static final ParameterizedTypeReference<List<GameEventDto>> responseGameEventDtoList =
+            new ParameterizedTypeReference<List<GameEventDto>>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GameEventLog gameEventLog;
+
+    @Autowired
+    private GameEventLogReconciler gameEventLogReconciler;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    @DynamicPropertySource
+    static void eventLog(DynamicPropertyRegistry registry) {
+
+        registry.add("game.event-log.directory", directory::toString);
+    }
+
+    @Test
+    public void testShouldLogCreateUpdateAndDeleteInOrder() throws InterruptedException {
+
+        long after = gameEventLog.getDurableOffset();
+
+        GameCreateDto gameCreateDto = GameControllerTest.standardGameCreateDtoBuilder().name("eventGame").build();
+        ResponseEntity<GameRegistrationStatusDto> created = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, new HttpEntity<>(gameCreateDto), GameRegistrationStatusDto.class);
+        GameDto gameDto = GameControllerTest.standardGameDtoBuilder().build();
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT, new HttpEntity<>(gameDto), GameDto.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/2", HttpMethod.DELETE, null, GameDto.class);
+        awaitDurable(gameEventLog, after + 3);
+
+        ResponseEntity<List<GameEventDto>> events = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/events?after={after}", HttpMethod.GET, null, responseGameEventDtoList, after);
+
+        assertThat(events.getStatusCodeValue()).isEqualTo(200);
+        assertThat(events.getBody()).extracting(GameEventDto::getOffset).containsExactly(after + 1, after + 2, after + 3);
+        assertThat(events.getBody()).extracting(GameEventDto::getType)
+                .containsExactly(GameEventType.CREATED, GameEventType.UPDATED, GameEventType.DELETED);
+        assertThat(events.getBody()).extracting(GameEventDto::getGameId).containsExactly(created.getBody().getGameId(), 1L, 2L);
+        assertThat(events.getBody()).extracting(GameEventDto::getStatus).containsExactly(GameStatus.NEW, GameStatus.DROPED, null);
+        assertThat(events.getBody().get(1).getOccurredAt()).isNotNull();
+
+        ResponseEntity<List<GameEventDto>> tail = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/events?after={after}&limit=1", HttpMethod.GET, null, responseGameEventDtoList, after + 1);
+
+        assertThat(tail.getBody()).extracting(GameEventDto::getGameId).containsExactly(1L);
+
+        ResponseEntity<GameEventSnapshotDto> snapshot = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/events/snapshot", HttpMethod.GET, null, GameEventSnapshotDto.class);
+
+        assertThat(snapshot.getBody().getOffset()).isEqualTo(after + 3);
+        assertThat(snapshot.getBody().getGames()).extracting(GameEventDto::getGameId).contains(1L, created.getBody().getGameId())
+                .doesNotContain(2L);
+    }
+
+    @Test
+    public void testShouldReplaySnapshotAndSegmentsAfterRestart() throws IOException, InterruptedException {
+
+        long after = gameEventLog.getDurableOffset();
+        GameDto gameDto = GameControllerTest.standardGameDtoBuilder().build();
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT, new HttpEntity<>(gameDto), GameDto.class);
+        awaitDurable(gameEventLog, after + 1);
+        gameEventLog.snapshot();
+        gameDto.setStatus(GameStatus.FINISHED);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/3", HttpMethod.PUT, new HttpEntity<>(gameDto), GameDto.class);
+        awaitDurable(gameEventLog, after + 2);
+
+        List<GameEventDto> logged = gameEventLog.read(0L, Integer.MAX_VALUE);
+        Path copy = copyLog();
+        appendTornRecord(copy);
+
+        GameEventLog restarted = openLog(copy, DataSize.ofMegabytes(64));
+        try {
+            assertThat(restarted.getDurableOffset()).isEqualTo(gameEventLog.getDurableOffset());
+            assertThat(restarted.read(0L, Integer.MAX_VALUE)).isEqualTo(logged);
+            assertThat(restarted.getLastEvent(1L).getStatus()).isEqualTo(GameStatus.DROPED);
+            assertThat(restarted.getLastEvent(3L).getStatus()).isEqualTo(GameStatus.FINISHED);
+            assertThat(restarted.append(event(3L, Long.MAX_VALUE)).join()).isEqualTo(logged.size() + 1L);
+        }
+        finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    public void testShouldRollSegmentsAndReadAcrossThem() throws IOException {
+
+        Path rolled = Files.createTempDirectory("game-events-rolled");
+        GameEventLog log = openLog(rolled, DataSize.ofBytes(300));
+        List<CompletableFuture<Long>> appended = new ArrayList<>();
+
+        try {
+            for (long i = 1; i <= 20; i++) {
+                appended.add(log.append(event(i, i)));
+            }
+            appended.forEach(CompletableFuture::join);
+
+            assertThat(log.read(0L, 100)).extracting(GameEventDto::getOffset).containsExactlyElementsOf(offsets(1, 20));
+            assertThat(log.read(12L, 3)).extracting(GameEventDto::getOffset).containsExactly(13L, 14L, 15L);
+        }
+        finally {
+            log.close();
+        }
+
+        try (Stream<Path> files = Files.list(rolled)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".log")).count()).isGreaterThanOrEqualTo(4);
+        }
+
+        GameEventLog reopened = openLog(rolled, DataSize.ofBytes(300));
+        try {
+            assertThat(reopened.read(0L, 100)).extracting(GameEventDto::getGameId).containsExactlyElementsOf(offsets(1, 20));
+            assertThat(reopened.append(event(21L, 21L)).join()).isEqualTo(21L);
+        }
+        finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testShouldLogEventsInReservationOrder() throws IOException, InterruptedException {
+
+        GameEventLog log = openLog(Files.createTempDirectory("game-events-reserved"), DataSize.ofMegabytes(64));
+
+        try {
+            List<TransactionSynchronization> first = reserve(log, event(1L, 1L));
+            List<TransactionSynchronization> rolledBack = reserve(log, event(2L, 2L));
+            List<TransactionSynchronization> second = reserve(log, event(3L, 3L));
+
+            complete(second, true);
+            complete(rolledBack, false);
+            complete(first, true);
+            awaitDurable(log, 2L);
+
+            assertThat(log.read(0L, 10)).extracting(GameEventDto::getGameId).containsExactly(1L, 3L);
+
+            // Commits after the append timeout and still comes before the event appended after it
+            List<TransactionSynchronization> late = reserve(log, event(4L, 4L));
+            CompletableFuture<Long> next = log.append(event(5L, 5L));
+            Thread.sleep(1500);
+            complete(late, true);
+
+            assertThat(next.join()).isEqualTo(4L);
+            assertThat(log.read(2L, 10)).extracting(GameEventDto::getGameId).containsExactly(4L, 5L);
+            assertThat(log.getLastVersion()).isEqualTo(5L);
+        }
+        finally {
+            log.close();
+        }
+    }
+
+    @Test
+    public void testShouldReconcileOnlyWritesAfterLastLoggedVersion() throws IOException, InterruptedException {
+
+        long after = gameEventLog.getDurableOffset();
+        GameDto gameDto = GameControllerTest.standardGameDtoBuilder().build();
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT, new HttpEntity<>(gameDto), GameDto.class);
+        awaitDurable(gameEventLog, after + 1);
+
+        // Written without the log, as while it was disabled
+        long updatedVersion = transactionTemplate.execute(status -> {
+            Game game = gameRepository.findById(3L).orElseThrow();
+            game.setName("reconciled");
+            game.setVersion(gameRepository.incrementVersion());
+            return gameRepository.save(game).getVersion();
+        });
+        long deletedVersion = transactionTemplate.execute(status -> {
+            long version = gameRepository.incrementVersion();
+            gameRepository.deleteById(1L);
+            tombstoneRepository.save(new GameTombstone(1L, version, LocalDateTime.now()));
+            return version;
+        });
+
+        gameEventLogReconciler.reconcile();
+
+        List<GameEventDto> events = gameEventLog.read(after + 1, Integer.MAX_VALUE);
+
+        assertThat(events).extracting(GameEventDto::getGameId).containsExactly(3L, 1L);
+        assertThat(events).extracting(GameEventDto::getVersion).containsExactly(updatedVersion, deletedVersion);
+        assertThat(events.get(0).getName()).isEqualTo("reconciled");
+        assertThat(events.get(1).getType()).isEqualTo(GameEventType.DELETED);
+    }
+
+    private static List<TransactionSynchronization> reserve(GameEventLog log, GameEventDto event) {
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            log.appendAfterCommit(() -> event);
+
+            return TransactionSynchronizationManager.getSynchronizations();
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, boolean committed) {
+
+        if (committed) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    /**
+     * Events are written after the request returns, so the tests wait for the writer.
+     */
+    private static void awaitDurable(GameEventLog log, long offset) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (log.getDurableOffset() < offset && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(log.getDurableOffset()).isGreaterThanOrEqualTo(offset);
+    }
+
+    private GameEventLog openLog(Path logDirectory, DataSize segmentSize) throws IOException {
+
+        GameEventLog log = new GameEventLog(true, logDirectory.toString(), segmentSize, 1000, Duration.ofSeconds(1), 1);
+        log.open();
+
+        return log;
+    }
+
+    private static GameEventDto event(Long gameId, Long version) {
+
+        return GameEventDto.builder()
+                .type(GameEventType.UPDATED)
+                .gameId(gameId)
+                .name("game" + gameId)
+                .status(GameStatus.FINISHED)
+                .version(version)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<Long> offsets(long from, long to) {
+
+        List<Long> offsets = new ArrayList<>();
+        for (long offset = from; offset <= to; offset++) {
+            offsets.add(offset);
+        }
+
+        return offsets;
+    }
+
+    private Path copyLog() throws IOException {
+
+        Path copy = Files.createTempDirectory("game-events-copy");
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> !path.getFileName().toString().endsWith(".lock")).collect(Collectors.toList())) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Leaves half a record at the end of the last segment, as a crash during a write would.
+     */
+    private void appendTornRecord(Path logDirectory) throws IOException {
+
+        Path lastSegment;
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            lastSegment = files.filter(path -> path.toString().endsWith(".log")).sorted().reduce((first, second) -> second).orElseThrow();
+        }
+
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 60, 1, 2, 3, 4, 5}));
+        }
+    }
+
+    private String createTestURLWithPort(String uri) {
+
+        return "http://localhost:" + port + uri;
+    }
+
+    private static Path createDirectory() {
+
+        try {
+            return Files.createTempDirectory("game-events");
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package GameService.core;
+
+import static GameService.core.config.ApplicationUrls.REST_API_V1_GAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import GameService.core.config.ChecksumSpringLiquibase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import springfox.documentation.spring.web.plugins.Docket;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("fast-startup")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GameFastStartupTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ChecksumSpringLiquibase liquibase;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testShouldServeFirstRequestWithoutApiDocumentation() {
+
+        ResponseEntity<String> response = new TestRestTemplate().getForEntity(
+                "http://localhost:" + port + REST_API_V1_GAME + "", String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(context.getBeanNamesForType(Docket.class)).isEmpty();
+    }
+
+    @Test
+    public void testShouldSkipLiquibaseWhileSchemaIsUnchanged() throws Exception {
+
+        String checksum = jdbcTemplate.queryForObject("SELECT checksum FROM schema_checksum WHERE id = 1", String.class);
+        Integer changeSets = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM databasechangelog", Integer.class);
+
+        liquibase.afterPropertiesSet();
+
+        assertThat(checksum).hasSize(64);
+        assertThat(liquibase.isSkipped()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM databasechangelog", Integer.class)).isEqualTo(changeSets);
+    }
+
+    @Test
+    public void testShouldReconcileEventLogOnStartup() {
+
+        ConfigurableApplicationContext configurableContext = (ConfigurableApplicationContext) context;
+
+        assertThat(configurableContext.getBeanFactory().containsSingleton("gameEventLogReconciler")).isTrue();
+    }
+}
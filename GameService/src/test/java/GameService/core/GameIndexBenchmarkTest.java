@@ -0,0 +1,118 @@
+package GameService.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Seeds the game table and compares query plans and latency of the finder queries
+ * with and without the indexes of changeset 1.2. Seed size is set with -Dbenchmark.seed-size.
+ *
+ * Excluded from {@code test}, it drops and recreates indexes other suites rely on. Run it with
+ * {@code ./gradlew indexBenchmark}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class GameIndexBenchmarkTest {
+
+    private static final int SEED_SIZE = Integer.getInteger("benchmark.seed-size", 20000);
+
+    private static final int ITERATIONS = 200;
+
+    private static final String[] STATUSES = {"NEW", "FINISHED", "DROPED"};
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void seed() {
+
+        List<Object[]> games = new ArrayList<>();
+        for (int i = 0; i < SEED_SIZE; i++) {
+            games.add(new Object[]{"game" + (i % 1000), STATUSES[i % STATUSES.length]});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO game (name, status) VALUES (?, ?)", games);
+    }
+
+    @After
+    public void clean() {
+
+        jdbcTemplate.execute("DELETE FROM game");
+    }
+
+    @Test
+    public void testShouldUseNameStatusIndexForNameAndStatus() {
+
+        compare("idx_game_name_status", "CREATE INDEX idx_game_name_status ON game (name, status)",
+                "SELECT id, name, status FROM game WHERE name = 'game42' AND status = 'FINISHED'");
+    }
+
+    @Test
+    public void testShouldUseNameStatusIndexForName() {
+
+        compare("idx_game_name_status", "CREATE INDEX idx_game_name_status ON game (name, status)",
+                "SELECT id, name, status FROM game WHERE name = 'game42'");
+    }
+
+    @Test
+    public void testShouldUseStatusIndexForStatus() {
+
+        compare("idx_game_status_id", "CREATE INDEX idx_game_status_id ON game (status, id)",
+                "SELECT id, name, status FROM game WHERE status = 'DROPED'");
+    }
+
+    private void compare(String index, String createIndex, String query) {
+
+        time(query);
+
+        String indexedPlan = explain(query);
+        long indexedNanos = time(query);
+
+        String scanPlan;
+        long scanNanos;
+
+        jdbcTemplate.execute("DROP INDEX " + index);
+        try {
+            scanPlan = explain(query);
+            scanNanos = time(query);
+        }
+        finally {
+            jdbcTemplate.execute(createIndex);
+        }
+
+        logger.info("{} rows, {}\n  without index: {} us/query, plan: {}\n  with {}: {} us/query, plan: {}",
+                    SEED_SIZE, query, scanNanos / 1000, scanPlan, index, indexedNanos / 1000, indexedPlan);
+
+        assertThat(indexedPlan).containsIgnoringCase(index);
+        assertThat(scanPlan).doesNotContainIgnoringCase(index);
+    }
+
+    private String explain(String query) {
+
+        return jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+    }
+
+    private long time(String query) {
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            jdbcTemplate.queryForList(query);
+        }
+
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
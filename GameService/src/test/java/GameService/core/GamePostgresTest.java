@@ -0,0 +1,148 @@
+package GameService.core;
+
+import static GameService.core.config.ApplicationUrls.REST_API_V1_GAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import GameService.core.domein.dto.GameChangeDto;
+import GameService.core.domein.dto.GameChangesDto;
+import GameService.core.domein.dto.GameCreateDto;
+import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.dto.GameRegistrationStatusDto;
+import GameService.core.domein.model.GameStatus;
+import GameService.core.domein.model.RegistrationStatus;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Runs the repository paths that depend on the database dialect against a local embedded Postgres
+ * with the {@code postgres} profile. Started by {@code gradle postgresTest}, not by {@code test}.
+ */
+@Sql(scripts = {"/sql/game_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/sql/game_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+@RunWith(SpringRunner.class)
+@ActiveProfiles("postgres")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "game.registration.dispatch-initial-delay-ms=3600000",
+        "game.player-replica.enabled=false",
+        "spring.liquibase.parameters.id.sequence.start=1000"
+})
+public class GamePostgresTest {
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+
+    private static final ParameterizedTypeReference<List<GameDto>> responseGameDtoList =
+            new ParameterizedTypeReference<List<GameDto>>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterClass
+    public static void stopPostgres() throws IOException {
+
+        postgres.close();
+    }
+
+    @Test
+    public void testShouldCreateGamesWithSequenceIds() {
+
+        ResponseEntity<GameRegistrationStatusDto> first = createGame("postgres1");
+        ResponseEntity<GameRegistrationStatusDto> second = createGame("postgres2");
+
+        assertThat(first.getStatusCodeValue()).isEqualTo(202);
+        assertThat(first.getBody().getStatus()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(first.getBody().getGameId()).isGreaterThan(7L);
+        assertThat(second.getBody().getGameId()).isEqualTo(first.getBody().getGameId() + 1);
+
+        ResponseEntity<GameDto> game = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/" + first.getBody().getGameId(), HttpMethod.GET, null, GameDto.class);
+
+        assertThat(game.getStatusCodeValue()).isEqualTo(200);
+        assertThat(game.getBody().getName()).isEqualTo("postgres1");
+        assertThat(game.getBody().getStatus()).isEqualTo(GameStatus.NEW);
+    }
+
+    @Test
+    public void testShouldFilterGamesByEnumStatus() {
+
+        ResponseEntity<List<GameDto>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/filter?gameName=GAME3&status=NEW&playerName=", HttpMethod.GET, null, responseGameDtoList);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(Objects.requireNonNull(response.getBody()).size()).isEqualTo(4);
+    }
+
+    @Test
+    public void testShouldUpdateAndDeleteGamesInChangeFeed() {
+
+        ResponseEntity<GameChangesDto> fullSync = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/changes", HttpMethod.GET, null, GameChangesDto.class);
+
+        GameDto gameDto = GameControllerTest.standardGameDtoBuilder().build();
+        ResponseEntity<GameDto> updated = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/1", HttpMethod.PUT, new HttpEntity<>(gameDto), GameDto.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_GAME) + "/2", HttpMethod.DELETE, null, GameDto.class);
+
+        assertThat(updated.getStatusCodeValue()).isEqualTo(200);
+        assertThat(updated.getBody().getStatus()).isEqualTo(GameStatus.DROPED);
+
+        ResponseEntity<GameChangesDto> changes = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME) + "/changes?since={since}", HttpMethod.GET, null, GameChangesDto.class,
+                fullSync.getBody().getNextSince());
+
+        assertThat(changes.getBody().getChanges()).extracting(GameChangeDto::getId).containsExactly(1L, 2L);
+        assertThat(changes.getBody().getChanges()).extracting(GameChangeDto::isDeleted).containsExactly(false, true);
+    }
+
+    private ResponseEntity<GameRegistrationStatusDto> createGame(String name) {
+
+        GameCreateDto gameCreateDto = GameControllerTest.standardGameCreateDtoBuilder().name(name).build();
+
+        return testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_GAME), HttpMethod.POST, new HttpEntity<>(gameCreateDto), GameRegistrationStatusDto.class);
+    }
+
+    private String createTestURLWithPort(String uri) {
+
+        return "http://localhost:" + port + uri;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+
+        try {
+            return EmbeddedPostgres.start();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package GameService.core;
+
+import static GameService.core.config.ApplicationUrls.REST_API_V1_GAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import GameService.core.domein.dto.GameCreateDto;
+import GameService.core.domein.dto.GameDto;
+import GameService.core.domein.dto.GameRegistrationStatusDto;
+import GameService.core.domein.model.RegistrationStatus;
+import GameService.core.domein.service.GameRegistrationDispatcher;
+import GameService.core.domein.service.PlayerServiceResilience;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Runs the filter against a stub PlayerService on its configured port that injects failures and latency.
+ */
+@Sql(scripts = {"/sql/game_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/sql/game_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "game.registration.dispatch-initial-delay-ms=3600000",
+        "game.player-replica.enabled=false",
+        "game.player-service.hedge-delay=200ms",
+        "resilience4j.circuitbreaker.instances.playerService.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.playerService.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.playerService.wait-duration-in-open-state=500ms",
+        "resilience4j.circuitbreaker.instances.playerService.permitted-number-of-calls-in-half-open-state=1"
+})
+public class GameResilienceTest {
+
+    private static final String FILTER = REST_API_V1_GAME + "/filter?gameName=GAME3&status=NEW&playerName=player1";
+
+    private static final ParameterizedTypeReference<List<GameDto>> responseGameDtoList =
+            new ParameterizedTypeReference<List<GameDto>>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GameRegistrationDispatcher gameRegistrationDispatcher;
+
+    private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile int failingStatus;
+
+    private volatile long firstRequestDelayMs;
+
+    private HttpServer playerService;
+
+    @Before
+    public void init() throws IOException {
+
+        playerService = HttpServer.create(new InetSocketAddress(2020), 0);
+        playerService.createContext("/api/v1/player/gameIds", this::answerGameIds);
+        playerService.createContext("/api/v1/player/registration/batch", this::answerRegistrations);
+        playerService.setExecutor(Executors.newCachedThreadPool());
+        playerService.start();
+    }
+
+    @After
+    public void shutdown() {
+
+        playerService.stop(0);
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
+    @Test
+    public void testShouldOpenCircuitWhenPlayerServiceFailsAndCloseAfterProbe() throws InterruptedException {
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PlayerServiceResilience.PLAYER_SERVICE);
+        failingStatus = 500;
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(getFiltered().getStatusCodeValue()).isEqualTo(503);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(getFiltered().getStatusCodeValue()).isEqualTo(503);
+        assertThat(requests.get()).isEqualTo(4);
+
+        failingStatus = 0;
+        for (int i = 0; i < 50 && circuitBreaker.getState() == State.OPEN; i++) {
+            Thread.sleep(50);
+        }
+
+        ResponseEntity<List<GameDto>> response = getFiltered();
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody().size()).isEqualTo(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void testShouldHedgeSlowPlayerServiceRequest() throws InterruptedException {
+
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(PlayerServiceResilience.PLAYER_SERVICE);
+        int maxConcurrentCalls = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        firstRequestDelayMs = 3000;
+        long start = System.nanoTime();
+
+        ResponseEntity<List<GameDto>> response = getFiltered();
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody().size()).isEqualTo(2);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2000);
+        assertThat(requests.get()).isEqualTo(2);
+
+        Counter hedgeWins = meterRegistry.find("downstream.hedged.requests").tag("winner", "hedge").counter();
+        assertThat(hedgeWins).isNotNull();
+        assertThat(hedgeWins.count()).isEqualTo(1.0);
+
+        // The slow first attempt keeps its permit until it completes
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(maxConcurrentCalls - 1);
+        for (int i = 0; i < 100 && bulkhead.getMetrics().getAvailableConcurrentCalls() < maxConcurrentCalls; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(maxConcurrentCalls);
+    }
+
+    @Test
+    public void testShouldKeepCircuitClosedWhenBulkheadIsFull() {
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(PlayerServiceResilience.PLAYER_SERVICE);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(PlayerServiceResilience.PLAYER_SERVICE);
+        int held = 0;
+
+        try {
+            while (bulkhead.tryAcquirePermission()) {
+                held++;
+            }
+
+            for (int i = 0; i < 4; i++) {
+                assertThat(getFiltered().getStatusCodeValue()).isEqualTo(503);
+            }
+
+            assertThat(requests.get()).isZero();
+            assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+            assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        }
+        finally {
+            for (int i = 0; i < held; i++) {
+                bulkhead.onComplete();
+            }
+        }
+    }
+
+    @Test
+    public void testShouldRetryRegistrationsPlayerServiceCannotRead() {
+
+        failingStatus = 415;
+        GameCreateDto gameCreateDto = GameControllerTest.standardGameCreateDtoBuilder().build();
+
+        ResponseEntity<GameRegistrationStatusDto> created = testRestTemplate.exchange(
+                "http://localhost:" + port + REST_API_V1_GAME, HttpMethod.POST, new HttpEntity<>(gameCreateDto), GameRegistrationStatusDto.class);
+
+        gameRegistrationDispatcher.dispatch();
+
+        ResponseEntity<GameRegistrationStatusDto> status = testRestTemplate.exchange(
+                "http://localhost:" + port + created.getHeaders().getLocation(), HttpMethod.GET, null, GameRegistrationStatusDto.class);
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(status.getBody().getStatus()).isEqualTo(RegistrationStatus.PENDING);
+        assertThat(status.getBody().getAttempts()).isEqualTo(1);
+        assertThat(testRestTemplate.getForEntity("http://localhost:" + port + REST_API_V1_GAME + "/" + created.getBody().getGameId(),
+                                                 GameDto.class).getStatusCodeValue()).isEqualTo(200);
+    }
+
+    private ResponseEntity<List<GameDto>> getFiltered() {
+
+        return testRestTemplate.exchange("http://localhost:" + port + FILTER, HttpMethod.GET, null, responseGameDtoList);
+    }
+
+    private void answerRegistrations(HttpExchange exchange) throws IOException {
+
+        requests.incrementAndGet();
+        exchange.sendResponseHeaders(failingStatus == 0 ? 200 : failingStatus, -1);
+        exchange.close();
+    }
+
+    private void answerGameIds(HttpExchange exchange) throws IOException {
+
+        if (requests.incrementAndGet() == 1 && firstRequestDelayMs > 0) {
+            try {
+                Thread.sleep(firstRequestDelayMs);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body = "[3,4]".getBytes(StandardCharsets.UTF_8);
+        int status = failingStatus == 0 ? 200 : failingStatus;
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
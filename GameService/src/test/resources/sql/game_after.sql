@@ -1 +1,4 @@
-DELETE FROM game;
\ No newline at end of file
+DELETE FROM game_registration_outbox;
+DELETE FROM game_tombstone;
+DELETE FROM game;
+UPDATE game_status_count SET game_count = 0;
\ No newline at end of file
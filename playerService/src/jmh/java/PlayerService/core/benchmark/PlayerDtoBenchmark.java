@@ -0,0 +1,69 @@
+package PlayerService.core.benchmark;
+
+import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.model.Player;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mapping of {@link Player} entities to {@link PlayerDto} and JSON serialization of large result lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlayerDtoBenchmark {
+
+    @Param({"1000", "100000"})
+    public int seedSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Player> players;
+
+    private List<PlayerDto> playerDtos;
+
+    private List<Long> gameIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        players = new ArrayList<>();
+        for (long i = 0; i < seedSize; i++) {
+            players.add(new Player(i, "player" + (i % 100), i));
+        }
+
+        playerDtos = mapToDto();
+        gameIds = players.stream().map(Player::getGameId).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PlayerDto> mapToDto() {
+
+        return players.stream().map(PlayerDto::new).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeToJson() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(playerDtos);
+    }
+
+    @Benchmark
+    public byte[] serializeGameIdsToJson() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(gameIds);
+    }
+}
@@ -0,0 +1,83 @@
+package PlayerService.core.benchmark;
+
+import PlayerService.core.PlayerServiceApplication;
+import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.service.PlayerGameIndex;
+import PlayerService.core.domain.service.PlayerService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Duplicate check of {@link PlayerService#registerPlayer} against the embedded H2 database, and the
+ * game id lookup for a player registered to {@code seedSize} games, served by {@link PlayerGameIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegisterPlayerBenchmark {
+
+    private static final String PLAYER_NAME = "heavy";
+
+    @Param({"1000", "100000"})
+    public int seedSize;
+
+    private ConfigurableApplicationContext context;
+
+    private PlayerService playerService;
+
+    private PlayerDto alreadyRegistered;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(PlayerServiceApplication.class)
+                .properties("server.port=0",
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN")
+                .run();
+
+        List<Object[]> players = new ArrayList<>();
+        for (long gameId = 1; gameId <= seedSize; gameId++) {
+            players.add(new Object[]{PLAYER_NAME, gameId});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO player (name, game_id) VALUES (?, ?)", players);
+
+        context.getBean(PlayerGameIndex.class).load();
+
+        playerService = context.getBean(PlayerService.class);
+        alreadyRegistered = new PlayerDto(PLAYER_NAME, (long) seedSize / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public HttpStatus registerAlreadyRegisteredPlayer() {
+
+        return playerService.registerPlayer(alreadyRegistered);
+    }
+
+    @Benchmark
+    public long[] getGameIdsByPlayerName() {
+
+        return playerService.getGameIdsByPlayerName(PLAYER_NAME);
+    }
+}
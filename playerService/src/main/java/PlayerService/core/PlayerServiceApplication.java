@@ -3,13 +3,21 @@ package PlayerService.core;
 import java.util.Collections;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PlayerServiceApplication {
 
 	public static void main(String[] args) {
 		SpringApplication app = new SpringApplication(PlayerServiceApplication.class);
 		app.setDefaultProperties(Collections.singletonMap("server.port", "2020"));
-		app.run(args);
+		ConfigurableApplicationContext context = app.run(args);
+
+		// The cdsArchive task starts the service once to record the classes loaded at startup
+		if (Boolean.getBoolean("cds.training")) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 }
@@ -0,0 +1,29 @@
+package PlayerService.core.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Timeout of asynchronous requests such as the streamed responses, read from
+ * {@code spring.mvc.async.request-timeout}. Boot does not apply the property itself under
+ * {@code @EnableWebMvc}, which would leave Tomcat's 30 second default; zero or less means no timeout.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    private final Duration requestTimeout;
+
+    public AsyncRequestConfig(@Value("${spring.mvc.async.request-timeout:10m}") Duration requestTimeout) {
+
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+    }
+}
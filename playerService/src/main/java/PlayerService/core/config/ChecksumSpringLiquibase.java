@@ -0,0 +1,138 @@
+package PlayerService.core.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Liquibase update that is skipped when the change log files and parameters hash to the checksum
+ * stored in {@code schema_checksum} by the last update of the database. An unchanged schema then
+ * costs one query at startup instead of parsing the change log and taking the Liquibase lock.
+ * Every file in the directory of the change log is hashed, so any edit runs the update again.
+ */
+public class ChecksumSpringLiquibase extends SpringLiquibase {
+
+    private static final String SELECT_CHECKSUM = "SELECT checksum FROM schema_checksum WHERE id = 1";
+
+    private static final String UPDATE_CHECKSUM = "UPDATE schema_checksum SET checksum = ? WHERE id = 1";
+
+    private static final String INSERT_CHECKSUM = "INSERT INTO schema_checksum (id, checksum) VALUES (1, ?)";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final boolean skipUnchanged;
+
+    private Map<String, String> changeLogParameters = new HashMap<>();
+
+    private boolean skipped;
+
+    public ChecksumSpringLiquibase(boolean skipUnchanged) {
+
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    @Override
+    public void setChangeLogParameters(Map<String, String> parameters) {
+
+        super.setChangeLogParameters(parameters);
+        this.changeLogParameters = parameters == null ? new HashMap<>() : parameters;
+    }
+
+    /**
+     * Whether the last {@link #afterPropertiesSet()} found the schema unchanged and did not update it.
+     */
+    public boolean isSkipped() {
+
+        return skipped;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+
+        if (!skipUnchanged) {
+            super.afterPropertiesSet();
+            return;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(getDataSource());
+        String checksum = computeChecksum();
+
+        skipped = checksum.equals(getStoredChecksum(jdbcTemplate));
+
+        if (skipped) {
+            logger.debug("ChecksumSpringLiquibase: schema checksum {} unchanged, update skipped", checksum);
+            return;
+        }
+
+        super.afterPropertiesSet();
+
+        if (jdbcTemplate.update(UPDATE_CHECKSUM, checksum) == 0) {
+            jdbcTemplate.update(INSERT_CHECKSUM, checksum);
+        }
+
+        logger.debug("ChecksumSpringLiquibase: schema updated to checksum {}", checksum);
+    }
+
+    private String getStoredChecksum(JdbcTemplate jdbcTemplate) {
+
+        try {
+            List<String> checksums = jdbcTemplate.queryForList(SELECT_CHECKSUM, String.class);
+
+            return checksums.isEmpty() ? null : checksums.get(0);
+        }
+        catch (DataAccessException e) {
+            // Database not updated since the checksum table was introduced
+            return null;
+        }
+    }
+
+    String computeChecksum() {
+
+        String changeLog = getChangeLog().replaceFirst("^classpath\\*?:/?", "");
+        String directory = changeLog.contains("/") ? changeLog.substring(0, changeLog.lastIndexOf('/') + 1) : "";
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Resource[] resources = new PathMatchingResourcePatternResolver(getResourceLoader())
+                    .getResources("classpath*:" + directory + "*");
+            Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
+
+            for (Resource resource : resources) {
+                digest.update(resource.getFilename().getBytes(StandardCharsets.UTF_8));
+
+                try (InputStream inputStream = resource.getInputStream()) {
+                    digest.update(StreamUtils.copyToByteArray(inputStream));
+                }
+            }
+
+            digest.update(new TreeMap<>(changeLogParameters).toString().getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package PlayerService.core.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import liquibase.exception.LiquibaseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+/**
+ * Opt-in storage of players in several databases, enabled with {@code player.shards.enabled=true}.
+ * Every url of {@code player.shards.urls} gets its own Hikari pool with the {@code spring.datasource}
+ * credentials and {@code spring.datasource.hikari} settings, and the schema is migrated on each of them.
+ * Startup fails when the list is empty or has a blank entry.
+ *
+ * Every shard starts {@code player_seq} in its own range of {@link #SHARD_ID_RANGE} ids, so a player
+ * id is unique across shards and a delete by id finds at most one player.
+ */
+@Configuration
+@ConditionalOnProperty(name = "player.shards.enabled", havingValue = "true")
+public class PlayerShardConfig {
+
+    static final long SHARD_ID_RANGE = 1L << 48;
+
+    @Bean
+    @Primary
+    public PlayerShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment,
+            @Value("${player.shards.urls}") List<String> urls) {
+
+        if (urls.isEmpty() || urls.stream().anyMatch(url -> url.trim().isEmpty())) {
+            throw new IllegalStateException("player.shards.enabled=true requires player.shards.urls to list "
+                    + "the jdbc url of every shard, separated by commas, got '" + String.join(",", urls) + "'");
+        }
+
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> shards = new ArrayList<>();
+
+        for (int shard = 0; shard < urls.size(); shard++) {
+            String url = urls.get(shard).trim();
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .driverClassName(DatabaseDriver.fromJdbcUrl(url).getDriverClassName())
+                    .build();
+
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(dataSource.getPoolName() + "-" + shard);
+            shards.add(dataSource);
+        }
+
+        return new PlayerShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public ChecksumSpringLiquibase liquibase(PlayerShardRoutingDataSource dataSource, Environment environment,
+            @Value("${spring.liquibase.change-log:classpath:/db/changelog/db.changelog-master.yaml}") String changeLog,
+            @Value("${player.liquibase.skip-unchanged:false}") boolean skipUnchanged) {
+
+        Map<String, String> parameters = Binder.get(environment)
+                .bind("spring.liquibase.parameters", Bindable.mapOf(String.class, String.class))
+                .orElseGet(HashMap::new);
+
+        ShardedSpringLiquibase liquibase = new ShardedSpringLiquibase(dataSource.getShards(), parameters, skipUnchanged);
+        liquibase.setChangeLog(changeLog);
+
+        return liquibase;
+    }
+
+    /**
+     * Runs the change log on every shard in turn, each skipped on its own while its schema is unchanged
+     * with {@code player.liquibase.skip-unchanged}. The first shard keeps the configured
+     * {@code id.sequence.start}, the others start their ids at the beginning of their range.
+     */
+    static class ShardedSpringLiquibase extends ChecksumSpringLiquibase {
+
+        private final List<? extends DataSource> shards;
+
+        private final Map<String, String> parameters;
+
+        ShardedSpringLiquibase(List<? extends DataSource> shards, Map<String, String> parameters, boolean skipUnchanged) {
+
+            super(skipUnchanged);
+            this.shards = shards;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public void afterPropertiesSet() throws LiquibaseException {
+
+            for (int shard = 0; shard < shards.size(); shard++) {
+                Map<String, String> shardParameters = new HashMap<>(parameters);
+
+                if (shard > 0) {
+                    shardParameters.put("id.sequence.start", String.valueOf(shard * SHARD_ID_RANGE + 1));
+                }
+
+                setDataSource(shards.get(shard));
+                setChangeLogParameters(shardParameters);
+                super.afterPropertiesSet();
+            }
+        }
+    }
+}
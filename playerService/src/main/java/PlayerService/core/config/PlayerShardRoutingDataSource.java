@@ -0,0 +1,87 @@
+package PlayerService.core.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard {@link PlayerShards} selected for the calling thread. Without
+ * a selected shard connections come from the first shard, but only while the context starts, as for
+ * the schema migration. Once the context is running a connection without a selected shard fails,
+ * so a forgotten {@link PlayerShards#onShard} does not silently read or write the first shard.
+ */
+public class PlayerShardRoutingDataSource extends AbstractRoutingDataSource implements SmartLifecycle, Closeable {
+
+    private final List<HikariDataSource> shards;
+
+    private volatile boolean running;
+
+    public PlayerShardRoutingDataSource(List<HikariDataSource> shards) {
+
+        this.shards = shards;
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targetDataSources.put(shard, shards.get(shard));
+        }
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+    }
+
+    public List<? extends DataSource> getShards() {
+
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        Integer shard = PlayerShards.getCurrentShard();
+
+        if (shard == null && running) {
+            throw new IllegalStateException("PlayerShardRoutingDataSource: no shard selected, run the work through PlayerShards.onShard");
+        }
+
+        return shard;
+    }
+
+    @Override
+    public void start() {
+
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return running;
+    }
+
+    /**
+     * Starts before the web server, the schedulers and the startup listeners, and stops after them.
+     */
+    @Override
+    public int getPhase() {
+
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public void close() {
+
+        shards.forEach(HikariDataSource::close);
+    }
+}
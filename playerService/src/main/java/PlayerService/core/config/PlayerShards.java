@@ -0,0 +1,162 @@
+package PlayerService.core.config;
+
+import PlayerService.core.util.ThreadUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes player data to one of the shard databases listed in {@code player.shards.urls}, by hash of
+ * the player name. Work passed to {@link #onShard(int, Supplier)} runs with the shard selected for the
+ * calling thread, so the transactions and queries it starts take a connection of that shard from
+ * {@link PlayerShardRoutingDataSource}. Select the shard before a transaction begins; the transaction
+ * keeps the connection it started with.
+ *
+ * Work for every shard runs on its own thread, one per shard, and the results are returned in shard
+ * order. The threads are virtual with {@code spring.threads.virtual.enabled=true}, platform otherwise. With sharding disabled there is a single shard and all work runs on the calling thread.
+ * The shard of a name depends on the number of shards, changing the list means moving the players.
+ */
+@Component
+public class PlayerShards {
+
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    private final ExecutorService executor;
+
+    public PlayerShards(@Value("${player.shards.enabled:false}") boolean enabled,
+            @Value("${player.shards.urls:}") List<String> urls,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        this.shardCount = enabled ? Math.max(urls.size(), 1) : 1;
+        this.executor = ThreadUtil.newExecutor(virtualThreads, "player-shard-");
+    }
+
+    /**
+     * Shard selected for the calling thread, null outside of {@link #onShard(int, Supplier)}.
+     */
+    static Integer getCurrentShard() {
+
+        return currentShard.get();
+    }
+
+    public int getShardCount() {
+
+        return shardCount;
+    }
+
+    public int shardOf(String name) {
+
+        return Math.floorMod(name.hashCode(), shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+
+        Integer previousShard = currentShard.get();
+        currentShard.set(shard);
+
+        try {
+            return work.get();
+        }
+        finally {
+            if (previousShard == null) {
+                currentShard.remove();
+            }
+            else {
+                currentShard.set(previousShard);
+            }
+        }
+    }
+
+    public <T> T onShardOf(String name, Supplier<T> work) {
+
+        return onShard(shardOf(name), work);
+    }
+
+    /**
+     * Runs the work on every shard in parallel and returns the results in shard order. The first
+     * failure is rethrown once every shard finished.
+     */
+    public <T> List<T> onEveryShard(IntFunction<T> work) {
+
+        if (shardCount == 1) {
+            return Collections.singletonList(onShard(0, () -> work.apply(0)));
+        }
+
+        List<CompletableFuture<T>> results = new ArrayList<>(shardCount);
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            results.add(CompletableFuture.supplyAsync(() -> onShard(target, () -> work.apply(target)), executor));
+        }
+
+        return join(results);
+    }
+
+    /**
+     * Splits the items by the shard of their name, keeping their order, and runs the work for every
+     * shard that received items in parallel. Returns the results in shard order.
+     */
+    public <I, T> List<T> onShardsOf(Collection<I> items, Function<I, String> name, Function<List<I>, T> work) {
+
+        if (shardCount == 1) {
+            return Collections.singletonList(onShard(0, () -> work.apply(new ArrayList<>(items))));
+        }
+
+        Map<Integer, List<I>> itemsByShard = new LinkedHashMap<>();
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            itemsByShard.put(shard, new ArrayList<>());
+        }
+        for (I item : items) {
+            itemsByShard.get(shardOf(name.apply(item))).add(item);
+        }
+
+        List<CompletableFuture<T>> results = new ArrayList<>();
+
+        itemsByShard.forEach((shard, shardItems) -> {
+            if (!shardItems.isEmpty()) {
+                results.add(CompletableFuture.supplyAsync(() -> onShard(shard, () -> work.apply(shardItems)), executor));
+            }
+        });
+
+        return join(results);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        futures.forEach(future -> results.add(future.join()));
+
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+
+        executor.shutdown();
+    }
+}
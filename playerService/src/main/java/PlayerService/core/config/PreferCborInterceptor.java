@@ -0,0 +1,35 @@
+package PlayerService.core.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Asks GameService for a CBOR response wherever a JSON one would be accepted. JSON stays in the
+ * {@code Accept} header, so a peer without CBOR support still answers the way it used to.
+ *
+ * Boot's CBOR converter already puts CBOR in the header, but after JSON, and the peer answers with
+ * the first listed type it can write, so CBOR is moved to the front.
+ */
+public class PreferCborInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+
+        List<MediaType> accept = request.getHeaders().getAccept();
+
+        if (accept.contains(MediaType.APPLICATION_JSON)) {
+            List<MediaType> preferred = new ArrayList<>();
+            preferred.add(MediaType.APPLICATION_CBOR);
+            accept.stream().filter(type -> !type.equals(MediaType.APPLICATION_CBOR)).forEach(preferred::add);
+            request.getHeaders().setAccept(preferred);
+        }
+
+        return execution.execute(request, body);
+    }
+}
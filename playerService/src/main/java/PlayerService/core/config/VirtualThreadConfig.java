@@ -0,0 +1,28 @@
+package PlayerService.core.config;
+
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in mode that serves every request on its own virtual thread instead of Tomcat's platform
+ * thread pool, enabled with {@code spring.threads.virtual.enabled=true}.
+ *
+ * JDBC and the {@code RestTemplate} calls to GameService run on the request thread, so they block a
+ * virtual thread only. Concurrency is then bounded by the Hikari pool and {@code http.client.max-per-route}
+ * rather than by {@code server.tomcat.threads.max}, so size those for the expected load. Waiting for a
+ * pooled HTTP connection still pins the carrier thread, HttpClient 4 synchronizes there.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+    }
+}
@@ -2,14 +2,27 @@ package PlayerService.core.domain.contoller;
 
 import static PlayerService.core.config.ApplicationUrls.REST_API_V1_PLAYER;
 
+import PlayerService.core.domain.dto.PlayerChangeDto;
+import PlayerService.core.domain.dto.PlayerChangeHeadDto;
 import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.dto.PlayerImportRowDto;
+import PlayerService.core.domain.dto.PlayerMembershipSnapshotDto;
+import PlayerService.core.domain.dto.PlayerPageDto;
+import PlayerService.core.domain.dto.PlayerStatsDto;
 import PlayerService.core.domain.service.PlayerService;
+import PlayerService.core.util.DeltaEncoding;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.IOException;
 import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,6 +32,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @Api(tags = "player")
@@ -38,19 +53,60 @@ public class PlayerController {
             tags = {"player"})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Players retrieved", response = PlayerDto.class),
+            @ApiResponse(code = 304, message = "Players not modified since the given ETag"),
             @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
             @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
             @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
             @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
     })
     @GetMapping(value = "/all")
-    public ResponseEntity<List<PlayerDto>> getAllPlayers()
+    public ResponseEntity<List<PlayerDto>> getAllPlayers(WebRequest webRequest)
     {
+        if (webRequest.checkNotModified(playerService.getPlayersETag())) {
+            return null;
+        }
+
         List<PlayerDto> playerDtos =  playerService.getAllPlayers();
 
         return new ResponseEntity<>(playerDtos, HttpStatus.OK);
     }
 
+    @ApiOperation(
+            value = "Get page of players.",
+            notes = "Return players with id greater than afterId, ordered by id, and the cursor of the next page.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Players retrieved", response = PlayerPageDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @GetMapping(value = "/all/page")
+    public ResponseEntity<PlayerPageDto> getPlayersPage(@RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size)
+    {
+        return new ResponseEntity<>(playerService.getPlayersPage(afterId, size), HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Stream all players.",
+            notes = "Return all players as newline delimited JSON.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Players retrieved", response = PlayerDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllPlayers()
+    {
+        StreamingResponseBody body = playerService::streamAllPlayers;
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @ApiOperation(
             value = "Get player by name.",
             notes = "Return players.",
@@ -120,6 +176,61 @@ public class PlayerController {
         return new ResponseEntity<HttpStatus>(playerService.registerPlayer(playerCreateDto));
     }
 
+    @ApiOperation(
+            value = "Register a batch of game and player pairs.",
+            notes = "Register every name and game id pair and return per pair whether it was created or already registered.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Registration done", response = PlayerImportRowDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @PostMapping(value = "/registration/batch")
+    public ResponseEntity<List<PlayerImportRowDto>> registerPlayers(@RequestBody List<PlayerDto> playerDtos)
+    {
+        List<PlayerImportRowDto> rows = playerService.registerPlayers(playerDtos);
+
+        if(rows == null)
+        {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(rows, HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Register many players at once.",
+            notes = "Register every name and game id pair of a JSON array or newline delimited JSON body and stream the result of each row as newline delimited JSON. "
+                    + "Results are written while the body is read, so read the response while sending the body.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Import done", response = PlayerImportRowDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importPlayers(HttpServletRequest request) throws IOException
+    {
+        MappingIterator<PlayerDto> players;
+
+        try {
+            players = playerService.readImportRows(request.getInputStream());
+        }
+        catch (JsonProcessingException e)
+        {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = outputStream -> playerService.importPlayers(players, outputStream);
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @ApiOperation(
             value = "Get game ids by name.",
             notes = "Return player's game ids.",
@@ -132,10 +243,97 @@ public class PlayerController {
             @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
     })
     @GetMapping(value = "/gameIds")
-    public ResponseEntity<List<Long>> getGameIdsByPlayerName(@RequestParam  String name)
+    public ResponseEntity<long[]> getGameIdsByPlayerName(@RequestParam  String name)
     {
-        List<Long> listIds = playerService.getGameIdsByPlayerName(name);
+        long[] listIds = playerService.getGameIdsByPlayerName(name);
 
         return new ResponseEntity<>(listIds, HttpStatus.OK);
     }
+
+    @ApiOperation(
+            value = "Get delta encoded game ids by name.",
+            notes = "Return player's game ids in ascending order as the count followed by the first id and the gaps "
+                    + "between consecutive ids, each an unsigned LEB128 varint.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Ids retrieved", response = byte[].class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @GetMapping(value = "/gameIds", params = "encoding=delta", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getDeltaEncodedGameIdsByPlayerName(@RequestParam  String name)
+    {
+        byte[] encodedIds = DeltaEncoding.encode(playerService.getGameIdsByPlayerName(name));
+
+        return new ResponseEntity<>(encodedIds, HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Get player statistics by name.",
+            notes = "Return the number of games the player is registered to, 0 for an unknown player.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Statistics retrieved", response = PlayerStatsDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @GetMapping(value = "/{name}/stats")
+    public ResponseEntity<PlayerStatsDto> getPlayerStats(@PathVariable String name)
+    {
+        return new ResponseEntity<>(playerService.getPlayerStats(name), HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Get player membership changes.",
+            notes = "Return changes of the shard committed after the given sequence, ordered by sequence, "
+                    + "with the epoch and last sequence of the shard's feed as the Player-Change-Epoch and "
+                    + "Player-Change-Last-Sequence headers.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Changes retrieved", response = PlayerChangeDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 400, message = "Invalid input", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @GetMapping(value = "/changes")
+    public ResponseEntity<List<PlayerChangeDto>> getPlayerChanges(@RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "1000") int limit, @RequestParam(defaultValue = "0") int shard)
+    {
+        List<PlayerChangeDto> changes = playerService.getPlayerChanges(after, limit, shard);
+
+        if(changes == null)
+        {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        PlayerChangeHeadDto head = playerService.getPlayerChangeHead(shard);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(PlayerChangeDto.LAST_SEQUENCE_HEADER, String.valueOf(head.getLastSequence()));
+        if (head.getEpoch() != null) {
+            headers.set(PlayerChangeDto.EPOCH_HEADER, head.getEpoch());
+        }
+
+        return new ResponseEntity<>(changes, headers, HttpStatus.OK);
+    }
+
+    @ApiOperation(
+            value = "Get all player memberships.",
+            notes = "Return every player and game pair with the change sequence of every shard to resume from.",
+            tags = {"player"})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Memberships retrieved", response = PlayerMembershipSnapshotDto.class),
+            @ApiResponse(code = 500, message = "Unexpected error", response = Error.class),
+            @ApiResponse(code = 401, message = "You are not authorized to assign this player info", response = Error.class),
+            @ApiResponse(code = 403, message = "You do not have right permissions to assign this player info", response = Error.class)
+    })
+    @GetMapping(value = "/memberships")
+    public ResponseEntity<PlayerMembershipSnapshotDto> getMembershipSnapshot()
+    {
+        return new ResponseEntity<>(playerService.getMembershipSnapshot(), HttpStatus.OK);
+    }
 }
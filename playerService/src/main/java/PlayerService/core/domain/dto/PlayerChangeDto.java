@@ -0,0 +1,40 @@
+package PlayerService.core.domain.dto;
+
+import PlayerService.core.domain.model.PlayerChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerChangeDto {
+
+    /**
+     * Response headers of {@code GET player/changes} carrying the {@link PlayerChangeHeadDto} of the shard.
+     */
+    public static final String EPOCH_HEADER = "Player-Change-Epoch";
+
+    public static final String LAST_SEQUENCE_HEADER = "Player-Change-Last-Sequence";
+
+    private Long sequence;
+
+    private String name;
+
+    private Long gameId;
+
+    /**
+     * Whether the player is registered to the game after this change.
+     */
+    private boolean registered;
+
+    public PlayerChangeDto(PlayerChange playerChange)
+    {
+        this.sequence = playerChange.getSequence();
+        this.name = playerChange.getName();
+        this.gameId = playerChange.getGameId();
+        this.registered = playerChange.isRegistered();
+    }
+}
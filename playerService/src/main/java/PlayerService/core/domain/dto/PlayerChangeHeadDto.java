@@ -0,0 +1,24 @@
+package PlayerService.core.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of one shard's change feed, sent with its changes so GameService can tell that the feed
+ * restarted and resync.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerChangeHeadDto {
+
+    /**
+     * Random id given to the feed when its database was created, null on databases without one.
+     */
+    private String epoch;
+
+    private long lastSequence;
+}
@@ -0,0 +1,24 @@
+package PlayerService.core.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerImportRowDto {
+
+    /**
+     * Zero based position of the row in the request.
+     */
+    private long index;
+
+    private String name;
+
+    private Long gameId;
+
+    private PlayerImportStatus status;
+}
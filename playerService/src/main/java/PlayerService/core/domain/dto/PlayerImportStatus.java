@@ -0,0 +1,5 @@
+package PlayerService.core.domain.dto;
+
+public enum PlayerImportStatus {
+    CREATED, ALREADY_REGISTERED, DUPLICATE, INVALID
+}
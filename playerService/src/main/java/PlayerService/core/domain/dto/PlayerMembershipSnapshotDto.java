@@ -0,0 +1,33 @@
+package PlayerService.core.domain.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerMembershipSnapshotDto {
+
+    /**
+     * Every change up to this sequence is reflected in the snapshot, so it is the {@code after} to
+     * read changes from. Later changes may be reflected too; applying them again is harmless.
+     * With several shards this is the sequence of the first shard.
+     */
+    private Long sequence;
+
+    /**
+     * Sequence to read the changes of every shard from, in shard order.
+     */
+    private List<Long> sequences;
+
+    /**
+     * Epoch of every shard's change feed, in shard order, see {@link PlayerChangeHeadDto#getEpoch()}.
+     */
+    private List<String> epochs;
+
+    private List<PlayerDto> players;
+}
@@ -0,0 +1,21 @@
+package PlayerService.core.domain.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerPageDto {
+
+    private List<PlayerDto> players;
+
+    /**
+     * Id to pass as {@code afterId} for the next page, {@code null} when this is the last page.
+     */
+    private Long nextCursor;
+}
@@ -0,0 +1,17 @@
+package PlayerService.core.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerStatsDto {
+
+    private String name;
+
+    private long gameCount;
+}
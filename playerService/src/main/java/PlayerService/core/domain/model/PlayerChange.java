@@ -0,0 +1,38 @@
+package PlayerService.core.domain.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Membership of a player in a game after a committed change, {@code registered} is false once
+ * the pair was deleted. Written in the same transaction as the player row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "player_change")
+public class PlayerChange {
+
+    @Id
+    @Column(name = "sequence")
+    private Long sequence;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "game_id")
+    private Long gameId;
+
+    @Column(name = "registered")
+    private boolean registered;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,11 @@
+package PlayerService.core.domain.respository;
+
+import PlayerService.core.domain.model.PlayerChange;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+
+public interface PlayerChangeRepository extends CrudRepository<PlayerChange, Long>, PlayerChangeRepositoryCustom {
+
+    List<PlayerChange> findAllBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package PlayerService.core.domain.respository;
+
+import PlayerService.core.domain.dto.PlayerDto;
+import java.util.List;
+
+public interface PlayerChangeRepositoryCustom {
+
+    /**
+     * Appends one change per player with consecutive sequence numbers. Must run inside the
+     * transaction that changed the players; the sequence row stays locked until it commits.
+     */
+    void appendAll(List<PlayerDto> players, boolean registered);
+
+    long getLastSequence();
+
+    String getEpoch();
+}
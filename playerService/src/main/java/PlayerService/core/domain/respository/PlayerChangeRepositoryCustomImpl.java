@@ -0,0 +1,74 @@
+package PlayerService.core.domain.respository;
+
+import PlayerService.core.domain.dto.PlayerDto;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class PlayerChangeRepositoryCustomImpl implements PlayerChangeRepositoryCustom {
+
+    private static final String RESERVE_SEQUENCES = "UPDATE player_change_sequence SET last_sequence = last_sequence + ? WHERE id = 1";
+
+    private static final String SELECT_LAST_SEQUENCE = "SELECT last_sequence FROM player_change_sequence WHERE id = 1";
+
+    private static final String SELECT_EPOCH = "SELECT epoch FROM player_change_sequence WHERE id = 1";
+
+    private static final String INSERT_PLAYER_CHANGE = "INSERT INTO player_change (sequence, name, game_id, registered, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlayerChangeRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(List<PlayerDto> players, boolean registered) {
+
+        if (players.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(RESERVE_SEQUENCES, players.size());
+        long firstSequence = getLastSequence() - players.size() + 1;
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_PLAYER_CHANGE, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+
+                PlayerDto player = players.get(index);
+                statement.setLong(1, firstSequence + index);
+                statement.setString(2, player.getName());
+                statement.setLong(3, player.getGameId());
+                statement.setBoolean(4, registered);
+                statement.setTimestamp(5, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+
+                return players.size();
+            }
+        });
+    }
+
+    @Override
+    public long getLastSequence() {
+
+        Long lastSequence = jdbcTemplate.queryForObject(SELECT_LAST_SEQUENCE, Long.class);
+
+        return lastSequence == null ? 0L : lastSequence;
+    }
+
+    @Override
+    public String getEpoch() {
+
+        return jdbcTemplate.queryForObject(SELECT_EPOCH, String.class);
+    }
+}
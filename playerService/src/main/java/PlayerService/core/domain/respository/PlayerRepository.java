@@ -1,11 +1,46 @@
 package PlayerService.core.domain.respository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import PlayerService.core.domain.dto.PlayerDto;
 import PlayerService.core.domain.model.Player;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PlayerRepository extends CrudRepository<Player, Long>, PlayerRepositoryCustom {
 
-public interface PlayerRepository extends CrudRepository<Player, Long> {
+    String SELECT_PLAYER_DTO = "select new PlayerService.core.domain.dto.PlayerDto(p.name, p.gameId) from Player p";
 
-    List<Player> findByName(String name);
     Player findDistinctByName(String name);
+
+    // Read paths select PlayerDto or game ids directly, nothing is hydrated or tracked for dirty checking
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_PLAYER_DTO + " where p.name = :name")
+    List<PlayerDto> findPlayerDtosByName(@Param("name") String name);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_PLAYER_DTO)
+    List<PlayerDto> findAllPlayerDtos();
+
+    @Transactional(readOnly = true)
+    @Query("select p.gameId from Player p where p.name = :name order by p.gameId")
+    List<Long> findGameIdsByName(@Param("name") String name);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_PLAYER_DTO + " order by p.name, p.gameId")
+    Stream<PlayerDto> streamNameGameIds();
+
+    List<Player> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Player p order by p.id")
+    Stream<Player> streamAll();
 }
@@ -0,0 +1,30 @@
+package PlayerService.core.domain.respository;
+
+import PlayerService.core.domain.dto.PlayerDto;
+import java.util.List;
+
+public interface PlayerRepositoryCustom {
+
+    /**
+     * Inserts the given (name, gameId) pairs that are not stored yet, with JDBC batch statements of
+     * at most {@code batchSize} rows, and returns the inserted ones. Each row is one conditional insert,
+     * so no read precedes the write; a pair inserted concurrently by another transaction still fails
+     * the batch on the {@code pk_player} unique constraint with {@code DuplicateKeyException}.
+     */
+    List<PlayerDto> insertAllIfAbsent(List<PlayerDto> players, int batchSize);
+
+    /**
+     * Adds {@code delta} to the game count of every player in the list, skipping pairs without a game.
+     * Must run after {@code PlayerChangeRepositoryCustom#appendAll} in the same transaction, which holds
+     * the change sequence row lock that serializes the writers of a counter.
+     */
+    void addToGameCounts(List<PlayerDto> players, long delta);
+
+    long getGameCount(String name);
+
+    /**
+     * Sets every game count that differs from the player table to the counted value, under the change
+     * sequence row lock. Returns whether anything was corrected.
+     */
+    boolean reconcileGameCounts();
+}
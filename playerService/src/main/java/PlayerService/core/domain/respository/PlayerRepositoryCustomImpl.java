@@ -0,0 +1,103 @@
+package PlayerService.core.domain.respository;
+
+import PlayerService.core.domain.dto.PlayerDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class PlayerRepositoryCustomImpl implements PlayerRepositoryCustom {
+
+    // Portable form of INSERT ... ON CONFLICT DO NOTHING, H2 in tests does not support it.
+    // Ids come from the same sequence Player uses, nextval never returns a value inside a block Hibernate took.
+    private static final String INSERT_PLAYER_IF_ABSENT = "INSERT INTO player (id, name, game_id) SELECT nextval('player_seq'), ?, ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM player WHERE name = ? AND game_id = ?)";
+
+    private static final String ADD_TO_GAME_COUNT = "UPDATE player_game_count SET game_count = game_count + ? WHERE name = ?";
+
+    private static final String INSERT_GAME_COUNT = "INSERT INTO player_game_count (name, game_count) VALUES (?, ?)";
+
+    private static final String SELECT_GAME_COUNT = "SELECT game_count FROM player_game_count WHERE name = ?";
+
+    private static final String LOCK_CHANGE_SEQUENCE = "SELECT last_sequence FROM player_change_sequence WHERE id = 1 FOR UPDATE";
+
+    private static final String CORRECT_GAME_COUNTS = "UPDATE player_game_count c "
+            + "SET game_count = (SELECT COUNT(*) FROM player p WHERE p.name = c.name AND p.game_id <> 0) "
+            + "WHERE game_count <> (SELECT COUNT(*) FROM player p WHERE p.name = c.name AND p.game_id <> 0)";
+
+    private static final String INSERT_MISSING_GAME_COUNTS = "INSERT INTO player_game_count (name, game_count) "
+            + "SELECT p.name, COUNT(*) FROM player p WHERE p.game_id <> 0 "
+            + "AND NOT EXISTS (SELECT 1 FROM player_game_count c WHERE c.name = p.name) GROUP BY p.name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlayerRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<PlayerDto> insertAllIfAbsent(List<PlayerDto> players, int batchSize) {
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(INSERT_PLAYER_IF_ABSENT, players, batchSize, (statement, player) -> {
+            statement.setString(1, player.getName());
+            statement.setLong(2, player.getGameId());
+            statement.setString(3, player.getName());
+            statement.setLong(4, player.getGameId());
+        });
+
+        List<PlayerDto> insertedPlayers = new ArrayList<>();
+        int index = 0;
+
+        for (int[] batch : updateCounts) {
+            for (int updateCount : batch) {
+                if (updateCount > 0) {
+                    insertedPlayers.add(players.get(index));
+                }
+                index++;
+            }
+        }
+
+        return insertedPlayers;
+    }
+
+    @Override
+    public void addToGameCounts(List<PlayerDto> players, long delta) {
+
+        // Sorted, so concurrent transactions would take the counter rows in the same order
+        Map<String, Long> deltas = new TreeMap<>();
+
+        for (PlayerDto player : players) {
+            if (player.getGameId() != 0) {
+                deltas.merge(player.getName(), delta, Long::sum);
+            }
+        }
+
+        for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+            // A missing row with a negative delta was never counted, the reconciler creates it
+            if (jdbcTemplate.update(ADD_TO_GAME_COUNT, entry.getValue(), entry.getKey()) == 0 && entry.getValue() > 0) {
+                jdbcTemplate.update(INSERT_GAME_COUNT, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public long getGameCount(String name) {
+
+        List<Long> gameCount = jdbcTemplate.queryForList(SELECT_GAME_COUNT, Long.class, name);
+
+        return gameCount.isEmpty() ? 0L : gameCount.get(0);
+    }
+
+    @Override
+    public boolean reconcileGameCounts() {
+
+        jdbcTemplate.queryForObject(LOCK_CHANGE_SEQUENCE, Long.class);
+
+        int corrected = jdbcTemplate.update(CORRECT_GAME_COUNTS);
+        int inserted = jdbcTemplate.update(INSERT_MISSING_GAME_COUNTS);
+
+        return corrected + inserted > 0;
+    }
+}
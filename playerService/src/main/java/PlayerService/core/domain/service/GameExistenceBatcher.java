@@ -0,0 +1,208 @@
+package PlayerService.core.domain.service;
+
+import PlayerService.core.util.CommunicationUtil;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Coalesces game existence checks made within a short window into a single
+ * {@code POST game/exists} request to GameService.
+ *
+ * The window is timed on a single scheduler thread, while batches are sent on a separate pool of
+ * {@code player.game-exists.max-concurrent-batches} threads, so a slow GameService does not hold
+ * back the next window. A batch that fills up before its window ends is sent at once and its
+ * timer cancelled, so the next window gets its full length. Disabled when {@code player.game-exists.coalesce-window} is zero, which is
+ * the default.
+ */
+@Component
+public class GameExistenceBatcher {
+
+    private static final ParameterizedTypeReference<List<Long>> responseList = new ParameterizedTypeReference<List<Long>>() {};
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final RestTemplate restTemplate;
+
+    private final GameServiceResilience gameServiceResilience;
+
+    private final Duration coalesceWindow;
+
+    private final int maxBatchSize;
+
+    private final boolean preferCbor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService sender;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Map<Long, CompletableFuture<Boolean>> pending = new HashMap<>();
+
+    // Number of the window collecting into pending, a timer of an earlier window flushes nothing
+    private long window;
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    public GameExistenceBatcher(RestTemplate restTemplate, GameServiceResilience gameServiceResilience,
+            @Value("${player.game-exists.coalesce-window:0ms}") Duration coalesceWindow,
+            @Value("${player.game-exists.max-batch-size:500}") int maxBatchSize,
+            @Value("${player.game-exists.max-concurrent-batches:4}") int maxConcurrentBatches,
+            @Value("${http.client.prefer-cbor:true}") boolean preferCbor) {
+
+        this.restTemplate = restTemplate;
+        this.gameServiceResilience = gameServiceResilience;
+        this.coalesceWindow = coalesceWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.preferCbor = preferCbor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-exists-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sender = Executors.newFixedThreadPool(maxConcurrentBatches, runnable -> {
+            Thread thread = new Thread(runnable, "game-exists-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+
+        return !coalesceWindow.isZero();
+    }
+
+    /**
+     * Waits for the batch containing the given id. Communication problems are reported as
+     * a missing game, the same way a single {@code GET game/{id}} failure is.
+     */
+    public boolean isGameExist(Long gameId) {
+
+        return submit(gameId).join();
+    }
+
+    public CompletableFuture<Boolean> submit(Long gameId) {
+
+        CompletableFuture<Boolean> result;
+        Map<Long, CompletableFuture<Boolean>> fullBatch = null;
+
+        lock.lock();
+        try {
+            result = pending.get(gameId);
+
+            if (result == null) {
+                result = new CompletableFuture<>();
+
+                if (pending.isEmpty()) {
+                    long flushedWindow = window;
+                    scheduledFlush = scheduler.schedule(() -> flush(flushedWindow), coalesceWindow.toMillis(), TimeUnit.MILLISECONDS);
+                }
+
+                pending.put(gameId, result);
+
+                if (pending.size() >= maxBatchSize) {
+                    fullBatch = pending;
+                    pending = new HashMap<>();
+                    window++;
+                    scheduledFlush.cancel(false);
+                }
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            Map<Long, CompletableFuture<Boolean>> batch = fullBatch;
+            sender.execute(() -> send(batch));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the subset of the given ids that exist in GameService, in one round trip.
+     */
+    public Set<Long> fetchExistingGameIds(Collection<Long> gameIds) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(preferCbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+        HttpEntity<Collection<Long>> entity = new HttpEntity<>(gameIds, headers);
+
+        ResponseEntity<List<Long>> response = gameServiceResilience.callIdempotent(() -> restTemplate.exchange(
+                CommunicationUtil.createURLWithPort("game/exists"), HttpMethod.POST, entity, responseList));
+
+        return response.getBody() == null ? new HashSet<>() : new HashSet<>(response.getBody());
+    }
+
+    private void flush(long flushedWindow) {
+
+        Map<Long, CompletableFuture<Boolean>> batch;
+
+        lock.lock();
+        try {
+            if (flushedWindow != window) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            window++;
+        }
+        finally {
+            lock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            sender.execute(() -> send(batch));
+        }
+    }
+
+    private void send(Map<Long, CompletableFuture<Boolean>> batch) {
+
+        try {
+            Set<Long> existingIds = fetchExistingGameIds(batch.keySet());
+
+            batch.forEach((gameId, result) -> result.complete(existingIds.contains(gameId)));
+
+            logger.debug("GameExistenceBatcher: checked {} game ids in one request", batch.size());
+        }
+        catch (Exception e) {
+
+            logger.debug("GameExistenceBatcher: problem with GameService");
+            logger.debug(e.getMessage());
+
+            batch.values().forEach(result -> result.complete(false));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        scheduler.shutdown();
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,188 @@
+package PlayerService.core.domain.service;
+
+import PlayerService.core.util.ThreadUtil;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Guards every call to GameService with the {@code gameService} circuit breaker and bulkhead,
+ * configured under {@code resilience4j.*.instances.gameService}. Rejected calls fail fast with
+ * {@code CallNotPermittedException} or {@code BulkheadFullException}.
+ *
+ * Idempotent reads can also be hedged: when the first attempt has not answered within
+ * {@code player.game-service.hedge-delay} a second one is sent, if the bulkhead has room, and the
+ * first successful answer wins. Hedging is off while the delay is zero, which is the default.
+ *
+ * Hedged attempts run on their own threads, each holding a bulkhead permit until it completes, so an
+ * attempt that lost the race still counts against the bulkhead while it is in flight. The threads are
+ * virtual with {@code spring.threads.virtual.enabled=true}, platform otherwise.
+ */
+@Component
+public class GameServiceResilience {
+
+    public static final String GAME_SERVICE = "gameService";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    private final ExecutorService hedgeExecutor;
+
+    private final Duration hedgeDelay;
+
+    private final MeterRegistry meterRegistry;
+
+    public GameServiceResilience(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+            @Value("${player.game-service.hedge-delay:0ms}") Duration hedgeDelay, MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(GAME_SERVICE);
+        this.bulkhead = bulkheadRegistry.bulkhead(GAME_SERVICE);
+        this.hedgeExecutor = ThreadUtil.newExecutor(virtualThreads, "game-service-hedge-");
+        this.hedgeDelay = hedgeDelay;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(Supplier<T> request) {
+
+        return circuitBreaker.executeSupplier(() -> bulkhead.executeSupplier(request));
+    }
+
+    public <T> T callIdempotent(Supplier<T> request) {
+
+        if (hedgeDelay.isZero()) {
+            return call(request);
+        }
+
+        return circuitBreaker.executeSupplier(() -> hedge(request));
+    }
+
+    private <T> T hedge(Supplier<T> request) {
+
+        bulkhead.acquirePermission();
+
+        CompletableFuture<T> primary = attempt(request);
+
+        if (primary == null) {
+            try {
+                return request.get();
+            }
+            finally {
+                bulkhead.onComplete();
+            }
+        }
+
+        try {
+            return primary.get(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            if (!bulkhead.tryAcquirePermission()) {
+                return join(primary);
+            }
+        }
+        catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+
+        CompletableFuture<T> hedged = attempt(request);
+
+        if (hedged == null) {
+            bulkhead.onComplete();
+            return join(primary);
+        }
+
+        logger.debug("GameServiceResilience: no answer within {}, hedged request sent", hedgeDelay);
+
+        return join(firstSuccessful(primary, hedged));
+    }
+
+    /**
+     * Sends the request on a hedge thread, releasing the bulkhead permit acquired for it once it
+     * completes. Returns null when the executor is shut down, the permit is then still held.
+     */
+    private <T> CompletableFuture<T> attempt(Supplier<T> request) {
+
+        CompletableFuture<T> attempt;
+
+        try {
+            attempt = CompletableFuture.supplyAsync(request, hedgeExecutor);
+        }
+        catch (RejectedExecutionException e) {
+            return null;
+        }
+
+        attempt.whenComplete((result, error) -> bulkhead.onComplete());
+
+        return attempt;
+    }
+
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedged) {
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+
+        primary.whenComplete((value, error) -> complete(result, value, error, failures, "primary"));
+        hedged.whenComplete((value, error) -> complete(result, value, error, failures, "hedge"));
+
+        return result;
+    }
+
+    private <T> void complete(CompletableFuture<T> result, T value, Throwable error, AtomicInteger failures, String attempt) {
+
+        if (error == null) {
+            if (result.complete(value)) {
+                meterRegistry.counter("downstream.hedged.requests", "name", GAME_SERVICE, "winner", attempt).increment();
+            }
+        }
+        else if (failures.incrementAndGet() == 2) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable error) {
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    public void close() {
+
+        hedgeExecutor.shutdown();
+    }
+}
@@ -0,0 +1,222 @@
+package PlayerService.core.domain.service;
+
+import PlayerService.core.config.PlayerShards;
+import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.respository.PlayerRepository;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory index from player name to the player's game ids, kept as a sorted {@code long[]} so
+ * {@code player/gameIds} needs neither entity hydration nor boxing.
+ *
+ * Loaded once the application is ready and refreshed for every name a committed write touched.
+ * Every load of a shard and every refresh takes a read number before it queries, and a name keeps
+ * the ids of the read with the highest number. A refresh starts after its write committed, so the
+ * highest numbered read of a name has seen every write refreshed before it, whichever query finishes
+ * first. A name left without games keeps an empty entry while an older read is still in flight, so
+ * that read cannot bring its ids back; once every older read finished, the entry is evicted. Shards
+ * hold disjoint names and are loaded in parallel.
+ * Disabled with {@code player.game-index.enabled=false}.
+ */
+@Component
+public class PlayerGameIndex {
+
+    private static final long[] NO_GAME_IDS = new long[0];
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final PlayerRepository playerRepository;
+
+    private final PlayerShards playerShards;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final boolean enabled;
+
+    private final Map<String, IndexedGameIds> gameIdsByName = new ConcurrentHashMap<>();
+
+    private final NavigableSet<Long> readsInFlight = new ConcurrentSkipListSet<>();
+
+    private final Queue<Map.Entry<String, IndexedGameIds>> emptyEntries = new ConcurrentLinkedQueue<>();
+
+    private long reads;
+
+    private volatile boolean ready;
+
+    public PlayerGameIndex(PlayerRepository playerRepository, PlayerShards playerShards, TransactionTemplate transactionTemplate,
+            @Value("${player.game-index.enabled:false}") boolean enabled) {
+
+        this.playerRepository = playerRepository;
+        this.playerShards = playerShards;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+
+        return ready;
+    }
+
+    /**
+     * Returns the game ids of the player in ascending order. The array is shared, callers must not modify it.
+     */
+    public long[] getGameIds(String name) {
+
+        IndexedGameIds indexed = gameIdsByName.get(name);
+
+        return indexed == null ? NO_GAME_IDS : indexed.gameIds;
+    }
+
+    /**
+     * Streams every (name, gameId) pair ordered by name and game id, so each player's ids arrive
+     * already sorted. A name refreshed with a later read while loading keeps its refreshed ids.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        if (!enabled) {
+            return;
+        }
+
+        playerShards.onEveryShard(shard -> readOnlyTransactionTemplate.execute(status -> {
+            loadShard();
+            return null;
+        }));
+
+        ready = true;
+
+        logger.debug("PlayerGameIndex: load indexed {} players", gameIdsByName.size());
+    }
+
+    private void loadShard() {
+
+        long read = startRead();
+        String name = null;
+        long[] gameIds = new long[16];
+        int size = 0;
+
+        try (Stream<PlayerDto> players = playerRepository.streamNameGameIds()) {
+            Iterator<PlayerDto> iterator = players.iterator();
+
+            while (iterator.hasNext()) {
+                PlayerDto player = iterator.next();
+
+                if (!player.getName().equals(name)) {
+                    if (name != null) {
+                        index(name, Arrays.copyOf(gameIds, size), read);
+                    }
+                    name = player.getName();
+                    size = 0;
+                }
+
+                if (size == gameIds.length) {
+                    gameIds = Arrays.copyOf(gameIds, size * 2);
+                }
+                gameIds[size++] = player.getGameId();
+            }
+
+            if (name != null) {
+                index(name, Arrays.copyOf(gameIds, size), read);
+            }
+        }
+        finally {
+            finishRead(read);
+        }
+    }
+
+    /**
+     * Reloads the game ids of the given names. Call after the transaction that changed them committed.
+     */
+    public void refresh(Collection<String> names) {
+
+        if (!enabled) {
+            return;
+        }
+
+        for (String name : names) {
+            long read = startRead();
+
+            try {
+                List<Long> gameIds = playerShards.onShardOf(name, () -> playerRepository.findGameIdsByName(name));
+
+                index(name, gameIds.isEmpty() ? NO_GAME_IDS : gameIds.stream().mapToLong(Long::longValue).toArray(), read);
+            }
+            finally {
+                finishRead(read);
+            }
+        }
+    }
+
+    /**
+     * Takes the next read number and marks it in flight under one lock, so every lower numbered
+     * read is already marked when this one starts.
+     */
+    private synchronized long startRead() {
+
+        long read = ++reads;
+        readsInFlight.add(read);
+
+        return read;
+    }
+
+    /**
+     * Evicts every empty entry no read still in flight is older than, as no such read can be
+     * started any more.
+     */
+    private void finishRead(long read) {
+
+        readsInFlight.remove(read);
+
+        Long oldestInFlight = readsInFlight.ceiling(Long.MIN_VALUE);
+
+        emptyEntries.removeIf(empty -> {
+            if (oldestInFlight != null && oldestInFlight < empty.getValue().read) {
+                return false;
+            }
+            gameIdsByName.remove(empty.getKey(), empty.getValue());
+            return true;
+        });
+    }
+
+    private void index(String name, long[] gameIds, long read) {
+
+        IndexedGameIds indexed = gameIdsByName.compute(name, (key, current) ->
+                current != null && current.read > read ? current : new IndexedGameIds(gameIds, read));
+
+        if (indexed.read == read && gameIds.length == 0) {
+            emptyEntries.add(new AbstractMap.SimpleImmutableEntry<>(name, indexed));
+        }
+    }
+
+    private static class IndexedGameIds {
+
+        private final long[] gameIds;
+
+        private final long read;
+
+        private IndexedGameIds(long[] gameIds, long read) {
+
+            this.gameIds = gameIds;
+            this.read = read;
+        }
+    }
+}
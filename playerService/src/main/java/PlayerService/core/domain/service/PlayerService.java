@@ -1,50 +1,194 @@
 package PlayerService.core.domain.service;
 
+import PlayerService.core.config.PlayerShards;
+import PlayerService.core.domain.dto.PlayerChangeDto;
 import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.dto.PlayerImportRowDto;
+import PlayerService.core.domain.dto.PlayerImportStatus;
+import PlayerService.core.domain.dto.PlayerChangeHeadDto;
+import PlayerService.core.domain.dto.PlayerMembershipSnapshotDto;
+import PlayerService.core.domain.dto.PlayerPageDto;
+import PlayerService.core.domain.dto.PlayerStatsDto;
 import PlayerService.core.domain.model.Player;
+import PlayerService.core.domain.respository.PlayerChangeRepository;
 import PlayerService.core.domain.respository.PlayerRepository;
 import PlayerService.core.util.CommunicationUtil;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 @Service
 public class PlayerService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_CHANGES_LIMIT = 10000;
+
+    private static final byte[] NDJSON_LINE_SEPARATOR = {'\n'};
+
     private final RestTemplate restTemplate;
 
+    private final GameServiceResilience gameServiceResilience;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
     private final PlayerRepository playerRepository;
 
-    public PlayerService(PlayerRepository playerRepository, RestTemplate restTemplate) {
+    private final PlayerChangeRepository playerChangeRepository;
+
+    private final PlayerGameIndex playerGameIndex;
+
+    private final GameExistenceBatcher gameExistenceBatcher;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final PlayerShards playerShards;
+
+    private final int bulkBatchSize;
+
+    public PlayerService(PlayerRepository playerRepository, PlayerChangeRepository playerChangeRepository,
+            PlayerGameIndex playerGameIndex, GameExistenceBatcher gameExistenceBatcher, RestTemplate restTemplate,
+            GameServiceResilience gameServiceResilience, EntityManager entityManager, ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate, PlayerShards playerShards,
+            @Value("${player.bulk.batch-size:1000}") int bulkBatchSize) {
 
         this.playerRepository = playerRepository;
+        this.playerChangeRepository = playerChangeRepository;
+        this.playerGameIndex = playerGameIndex;
+        this.gameExistenceBatcher = gameExistenceBatcher;
         this.restTemplate = restTemplate;
+        this.gameServiceResilience = gameServiceResilience;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.playerShards = playerShards;
+        this.bulkBatchSize = bulkBatchSize;
     }
 
     public List<PlayerDto> getPlayerByName(String name) {
 
-        List<Player>  players = playerRepository.findByName(name);
+        return playerShards.onShardOf(name, () -> playerRepository.findPlayerDtosByName(name));
+    }
 
-        return players.stream().map(PlayerDto::new).collect(Collectors.toList());
+    /**
+     * Entity tag of player list reads, the sequences of the last published {@link PlayerChangeDto}
+     * of every shard. Weak, as it names the version of the data in every encoding and media type,
+     * so Tomcat still compresses the responses that carry it.
+     */
+    public String getPlayersETag() {
+
+        return "W/\"players-" + playerShards.onEveryShard(shard -> playerChangeRepository.getLastSequence())
+                .stream().map(String::valueOf).collect(Collectors.joining(".")) + "\"";
     }
 
     public List<PlayerDto> getAllPlayers() {
 
-        List<Player> players = (List<Player>) playerRepository.findAll();
+        List<PlayerDto> playerDtos = flatten(playerShards.onEveryShard(shard -> playerRepository.findAllPlayerDtos()));
 
         logger.debug("PlayerService: getAllPlayers successfully done");
 
-        return players.stream().map(PlayerDto::new).collect(Collectors.toList());
+        return playerDtos;
+    }
+
+    public PlayerPageDto getPlayersPage(Long afterId, int size) {
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Every shard returns its first page after the cursor, the merged page is the first pageSize of them
+        List<Player> players = flatten(playerShards.onEveryShard(shard -> playerRepository.findAllByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, PageRequest.of(0, pageSize))));
+
+        if (playerShards.getShardCount() > 1) {
+            players.sort(Comparator.comparing(Player::getId));
+            players = new ArrayList<>(players.subList(0, Math.min(pageSize, players.size())));
+        }
+
+        Long nextCursor = players.size() < pageSize ? null : players.get(players.size() - 1).getId();
+
+        logger.debug("PlayerService: getPlayersPage successfully done");
+
+        return new PlayerPageDto(players.stream().map(PlayerDto::new).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Writes every player as one JSON document per line, reading them through a cursor
+     * and detaching each entity once written, so the full table is never held in memory.
+     * Shards are written one after the other, each ordered by id.
+     */
+    public void streamAllPlayers(OutputStream outputStream) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(PlayerDto.class);
+
+        try {
+            for (int shard = 0; shard < playerShards.getShardCount(); shard++) {
+                playerShards.onShard(shard, () -> readOnlyTransactionTemplate.execute(status -> {
+                    streamPlayers(writer, outputStream);
+                    return null;
+                }));
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        outputStream.flush();
+
+        logger.debug("PlayerService: streamAllPlayers successfully done");
+    }
+
+    private void streamPlayers(ObjectWriter writer, OutputStream outputStream) {
+
+        try (Stream<Player> players = playerRepository.streamAll()) {
+            Iterator<Player> iterator = players.iterator();
+
+            while (iterator.hasNext()) {
+                Player player = iterator.next();
+                outputStream.write(writer.writeValueAsBytes(new PlayerDto(player)));
+                outputStream.write(NDJSON_LINE_SEPARATOR);
+                entityManager.detach(player);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public HttpStatus createPlayer(PlayerDto playerDto) {
@@ -53,31 +197,55 @@ public class PlayerService {
         player.setName(playerDto.getName());
         player.setGameId(getGameIdToSet(playerDto));
 
-        if(player.getGameId()==0)
-        {
-            Player playersWithSameName = playerRepository.findDistinctByName(playerDto.getName());
-
-            if(playersWithSameName!=null)
+        HttpStatus status = playerShards.onShardOf(player.getName(), () -> {
+            if(player.getGameId()==0)
             {
-                return HttpStatus.BAD_REQUEST;
+                Player playersWithSameName = playerRepository.findDistinctByName(playerDto.getName());
+
+                if(playersWithSameName!=null)
+                {
+                    return HttpStatus.BAD_REQUEST;
+                }
             }
+
+            transactionTemplate.executeWithoutResult(transaction -> {
+                playerRepository.save(player);
+                publishChanges(Collections.singletonList(new PlayerDto(player)), true);
+            });
+
+            return HttpStatus.CREATED;
+        });
+
+        if (status != HttpStatus.CREATED) {
+            return status;
         }
 
-        playerRepository.save(player);
+        playerGameIndex.refresh(Collections.singleton(player.getName()));
 
         logger.debug("PlayerService: createPlayer successfully done");
 
         return HttpStatus.CREATED;
     }
 
+    /**
+     * Deletes the player on whichever shard stores it, asking every shard at once.
+     */
     public HttpStatus deletePlayerById(Long id) {
 
-        Player player;
+        Player player = playerShards.onEveryShard(shard -> transactionTemplate.execute(status -> {
+            Optional<Player> stored = playerRepository.findById(id);
+
+            stored.ifPresent(storedPlayer -> {
+                playerRepository.delete(storedPlayer);
+                publishChanges(Collections.singletonList(new PlayerDto(storedPlayer)), false);
+            });
+
+            return stored.orElse(null);
+        })).stream().filter(Objects::nonNull).findFirst().orElse(null);
 
-        if(playerRepository.findById(id).isPresent())
+        if(player != null)
         {
-            player = playerRepository.findById(id).get();
-            playerRepository.delete(player);
+            playerGameIndex.refresh(Collections.singleton(player.getName()));
 
             logger.debug("GameService: deleteGameById successfully done");
             return HttpStatus.OK;
@@ -91,11 +259,17 @@ public class PlayerService {
 
     public boolean isGameExist(Long gameId)
     {
+        if(gameExistenceBatcher.isEnabled())
+        {
+            return gameExistenceBatcher.isGameExist(gameId);
+        }
+
         HttpHeaders headers = new HttpHeaders();
         HttpEntity<Void> entity = new HttpEntity<Void>(null, headers);
 
         try {
-            ResponseEntity<Void> response = restTemplate.exchange(CommunicationUtil.createURLWithPort("game/" + gameId), HttpMethod.GET, entity, Void.class);
+            ResponseEntity<Void> response = gameServiceResilience.callIdempotent(() -> restTemplate.exchange(
+                    CommunicationUtil.createURLWithPort("game/{gameId}"), HttpMethod.GET, entity, Void.class, gameId));
 
             return response.getStatusCodeValue() == 200;
         }
@@ -116,29 +290,300 @@ public class PlayerService {
         }
     }
 
+    /**
+     * Registers the (name, gameId) pair with a single conditional insert; 304 when it is already
+     * stored, including when a concurrent registration of the same pair wins the race.
+     */
     public HttpStatus registerPlayer(PlayerDto playerDto) {
 
-        List<Player> players = playerRepository.findByName(playerDto.getName());
-        List<PlayerDto> playerDtos = players.stream().map(PlayerDto::new).collect(Collectors.toList());
+        try {
+            List<PlayerDto> insertedPlayers = insertPlayers(Collections.singletonList(new PlayerDto(playerDto.getName(), playerDto.getGameId())));
+
+            return insertedPlayers.isEmpty() ? HttpStatus.NOT_MODIFIED : HttpStatus.CREATED;
+        }
+        catch (DuplicateKeyException e) {
+
+            logger.debug("PlayerService: registerPlayer raced with another registration of the same player");
 
-        if(playerDtos.contains(playerDto)){
             return HttpStatus.NOT_MODIFIED;
         }
-        else {
-            Player player = new Player();
-            player.setGameId(playerDto.getGameId());
-            player.setName(playerDto.getName());
+    }
 
-            playerRepository.save(player);
+    /**
+     * Registers every (name, gameId) pair the same way {@link #registerPlayer(PlayerDto)} does and
+     * returns the result of each pair in request order, or null when there are more than
+     * {@code player.bulk.batch-size} pairs. Rows are written with one JDBC batch per shard.
+     */
+    public List<PlayerImportRowDto> registerPlayers(List<PlayerDto> playerDtos) {
 
-            return HttpStatus.CREATED;
+        if (playerDtos.size() > bulkBatchSize) {
+            return null;
+        }
+
+        List<PlayerImportRowDto> rows = new ArrayList<>(playerDtos.size());
+
+        for (PlayerDto playerDto : playerDtos) {
+            Long gameId = playerDto.getGameId() == null ? 0L : playerDto.getGameId();
+            PlayerImportRowDto row = new PlayerImportRowDto(rows.size(), playerDto.getName(), gameId, null);
+
+            if (row.getName() == null || row.getName().isEmpty()) {
+                row.setStatus(PlayerImportStatus.INVALID);
+            }
+
+            rows.add(row);
         }
+
+        List<PlayerImportRowDto> validRows = rows.stream().filter(row -> row.getStatus() == null).collect(Collectors.toList());
+
+        if (!validRows.isEmpty()) {
+            importRows(validRows);
+        }
+
+        logger.debug("PlayerService: registerPlayers successfully done");
+
+        return rows;
     }
 
-    public List<Long> getGameIdsByPlayerName(String name) {
+    /**
+     * Opens the (name, gameId) pairs of a JSON array or newline delimited JSON for
+     * {@link #importPlayers(MappingIterator, OutputStream)}, failing when the body does not start
+     * as either.
+     */
+    public MappingIterator<PlayerDto> readImportRows(InputStream inputStream) throws IOException {
+
+        return objectMapper.readerFor(PlayerDto.class).readValues(inputStream);
+    }
+
+    /**
+     * Registers every pair the same way {@link #registerPlayer(PlayerDto)} does for one pair and
+     * writes the result of each row as one JSON document per line, in request order. Rows are read
+     * and processed in chunks of {@code player.bulk.batch-size}, each written with one JDBC batch of
+     * conditional inserts that skips pairs already stored, and the chunk's results are flushed before
+     * the next chunk is read. Only one chunk of rows and results is held in memory, along with the
+     * pairs seen so far, so that a pair repeated in the request is reported as DUPLICATE rather than as
+     * already registered. A malformed row ends the response after the rows before it.
+     *
+     * The results are written while the body is still being read, so a client has to read the response
+     * while it sends the body. One that sends the whole body first stalls once the unread results fill
+     * the socket buffers.
+     */
+    public void importPlayers(MappingIterator<PlayerDto> players, OutputStream outputStream) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(PlayerImportRowDto.class);
+        List<PlayerImportRowDto> chunk = new ArrayList<>();
+        Set<PlayerDto> requestedPlayers = new HashSet<>();
+        long index = 0;
+        long created = 0;
+
+        try (MappingIterator<PlayerDto> rows = players) {
+            while (rows.hasNextValue()) {
+                PlayerDto playerDto = rows.nextValue();
+                Long gameId = playerDto.getGameId() == null ? 0L : playerDto.getGameId();
+                PlayerImportRowDto row = new PlayerImportRowDto(index++, playerDto.getName(), gameId, null);
+
+                if (row.getName() == null || row.getName().isEmpty()) {
+                    row.setStatus(PlayerImportStatus.INVALID);
+                }
+                else if (!requestedPlayers.add(new PlayerDto(row.getName(), gameId))) {
+                    row.setStatus(PlayerImportStatus.DUPLICATE);
+                }
+
+                chunk.add(row);
+
+                if (chunk.size() >= bulkBatchSize) {
+                    created += importChunk(chunk, writer, outputStream);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, writer, outputStream);
+        }
+
+        logger.debug("PlayerService: importPlayers created {} of {} players", created, index);
+    }
+
+    /**
+     * Imports the valid rows of the chunk and writes the result of every row, returns the number created.
+     */
+    private long importChunk(List<PlayerImportRowDto> chunk, ObjectWriter writer, OutputStream outputStream) throws IOException {
+
+        List<PlayerImportRowDto> validRows = chunk.stream().filter(row -> row.getStatus() == null).collect(Collectors.toList());
+
+        if (!validRows.isEmpty()) {
+            importRows(validRows);
+        }
+
+        long created = 0;
+
+        for (PlayerImportRowDto row : chunk) {
+            outputStream.write(writer.writeValueAsBytes(row));
+            outputStream.write(NDJSON_LINE_SEPARATOR);
+
+            if (row.getStatus() == PlayerImportStatus.CREATED) {
+                created++;
+            }
+        }
+
+        outputStream.flush();
+
+        return created;
+    }
+
+    /**
+     * Imports the rows of every shard in parallel, each shard falling back to row by row on its own.
+     */
+    private void importRows(List<PlayerImportRowDto> rows) {
+
+        playerShards.onShardsOf(rows, PlayerImportRowDto::getName, shardChunk -> {
+            importShardChunk(shardChunk);
+            return null;
+        });
+    }
+
+    private void importShardChunk(List<PlayerImportRowDto> chunk) {
+
+        try {
+            insertRows(chunk);
+        }
+        catch (DuplicateKeyException e) {
+
+            logger.debug("PlayerService: importPlayers batch raced with another registration, inserting row by row");
+
+            for (PlayerImportRowDto row : chunk) {
+                try {
+                    insertRows(Collections.singletonList(row));
+                }
+                catch (DuplicateKeyException duplicate) {
+                    row.setStatus(PlayerImportStatus.ALREADY_REGISTERED);
+                }
+            }
+        }
+    }
+
+    private void insertRows(List<PlayerImportRowDto> rows) {
+
+        List<PlayerDto> players = rows.stream().map(row -> new PlayerDto(row.getName(), row.getGameId())).collect(Collectors.toList());
+        // By identity, of two equal rows in one batch only the first one is inserted
+        Set<PlayerDto> insertedPlayers = Collections.newSetFromMap(new IdentityHashMap<>());
+        insertedPlayers.addAll(insertPlayers(players));
+
+        for (int row = 0; row < rows.size(); row++) {
+            rows.get(row).setStatus(insertedPlayers.contains(players.get(row)) ?
+                                  PlayerImportStatus.CREATED : PlayerImportStatus.ALREADY_REGISTERED);
+        }
+    }
+
+    /**
+     * Inserts the pairs not stored yet and publishes them as changes in one transaction per shard,
+     * returns the inserted pairs.
+     */
+    private List<PlayerDto> insertPlayers(List<PlayerDto> players) {
+
+        List<PlayerDto> insertedPlayers = flatten(playerShards.onShardsOf(players, PlayerDto::getName, shardPlayers ->
+                transactionTemplate.execute(status -> {
+                    List<PlayerDto> newPlayers = playerRepository.insertAllIfAbsent(shardPlayers, bulkBatchSize);
+                    publishChanges(newPlayers, true);
+                    return newPlayers;
+                })));
+
+        if (!insertedPlayers.isEmpty()) {
+            playerGameIndex.refresh(insertedPlayers.stream().map(PlayerDto::getName).collect(Collectors.toSet()));
+        }
+
+        return insertedPlayers;
+    }
+
+    /**
+     * Appends the changes and adjusts the players' game counts, in the caller's transaction.
+     * The counts follow the append, which locks the change sequence row they rely on.
+     */
+    private void publishChanges(List<PlayerDto> players, boolean registered) {
+
+        playerChangeRepository.appendAll(players, registered);
+        playerRepository.addToGameCounts(players, registered ? 1L : -1L);
+    }
+
+    public PlayerStatsDto getPlayerStats(String name) {
+
+        PlayerStatsDto playerStatsDto = new PlayerStatsDto(name, playerShards.onShardOf(name, () -> playerRepository.getGameCount(name)));
+
+        logger.debug("PlayerService: getPlayerStats successfully done");
+
+        return playerStatsDto;
+    }
+
+    /**
+     * Returns the player's game ids in ascending order, from {@link PlayerGameIndex} once it is
+     * loaded, otherwise with a query that reads only the game id column.
+     */
+    public long[] getGameIdsByPlayerName(String name) {
+
+        long[] gameIds = playerGameIndex.isReady() ?
+                playerGameIndex.getGameIds(name) :
+                playerShards.onShardOf(name, () -> playerRepository.findGameIdsByName(name)).stream().mapToLong(Long::longValue).toArray();
+
+        logger.debug("PlayerService: getGameIdsByPlayerName successfully done");
+
+        return gameIds;
+    }
+
+    /**
+     * Returns up to {@code limit} membership changes of the shard committed after the given sequence,
+     * in order, or null for an unknown shard. Every shard numbers its changes on its own.
+     */
+    public List<PlayerChangeDto> getPlayerChanges(Long after, int limit, int shard) {
+
+        if (shard < 0 || shard >= playerShards.getShardCount()) {
+            return null;
+        }
+
+        int changesLimit = Math.min(Math.max(limit, 1), MAX_CHANGES_LIMIT);
+
+        List<PlayerChangeDto> changes = playerShards.onShard(shard, () -> playerChangeRepository.findAllBySequenceGreaterThanOrderBySequenceAsc(
+                after == null ? 0L : after, PageRequest.of(0, changesLimit)))
+                .stream().map(PlayerChangeDto::new).collect(Collectors.toList());
+
+        logger.debug("PlayerService: getPlayerChanges successfully done");
+
+        return changes;
+    }
+
+    /**
+     * Epoch and last sequence of the shard's change feed. Read after the changes, the last sequence
+     * is never below the one of the last change returned unless the feed restarted.
+     */
+    public PlayerChangeHeadDto getPlayerChangeHead(int shard) {
+
+        return playerShards.onShard(shard, () -> readOnlyTransactionTemplate.execute(status ->
+                new PlayerChangeHeadDto(playerChangeRepository.getEpoch(), playerChangeRepository.getLastSequence())));
+    }
+
+    /**
+     * Returns every (name, gameId) pair with the change sequence and epoch of every shard to resume
+     * from. Each sequence is read before the shard's players, so a change committed while the players
+     * are read is delivered again afterwards.
+     */
+    public PlayerMembershipSnapshotDto getMembershipSnapshot() {
+
+        List<PlayerMembershipSnapshotDto> shardSnapshots = playerShards.onEveryShard(shard -> readOnlyTransactionTemplate.execute(status -> {
+            long sequence = playerChangeRepository.getLastSequence();
+            String epoch = playerChangeRepository.getEpoch();
+            return new PlayerMembershipSnapshotDto(sequence, null, Collections.singletonList(epoch), playerRepository.findAllPlayerDtos());
+        }));
+
+        List<Long> sequences = shardSnapshots.stream().map(PlayerMembershipSnapshotDto::getSequence).collect(Collectors.toList());
+        List<String> epochs = flatten(shardSnapshots.stream().map(PlayerMembershipSnapshotDto::getEpochs).collect(Collectors.toList()));
+        List<PlayerDto> players = flatten(shardSnapshots.stream().map(PlayerMembershipSnapshotDto::getPlayers).collect(Collectors.toList()));
+
+        logger.debug("PlayerService: getMembershipSnapshot successfully done");
+
+        return new PlayerMembershipSnapshotDto(sequences.get(0), sequences, epochs, players);
+    }
 
-        List<Player> players = playerRepository.findByName(name);
+    private static <T> List<T> flatten(List<List<T>> lists) {
 
-        return players.stream().map(Player::getGameId).collect(Collectors.toList());
+        return lists.stream().flatMap(List::stream).collect(Collectors.toCollection(ArrayList::new));
     }
 }
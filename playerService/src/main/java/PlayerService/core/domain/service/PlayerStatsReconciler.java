@@ -0,0 +1,49 @@
+package PlayerService.core.domain.service;
+
+import PlayerService.core.config.PlayerShards;
+import PlayerService.core.domain.respository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically recounts the games of every player and corrects the counters served by
+ * {@code GET /player/{name}/stats}, in case a write outside the service left them behind.
+ * Writers wait on the change sequence row while the players are counted. Every shard is
+ * reconciled in its own transaction.
+ */
+@Component
+public class PlayerStatsReconciler {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    private final PlayerRepository playerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PlayerShards playerShards;
+
+    public PlayerStatsReconciler(PlayerRepository playerRepository, TransactionTemplate transactionTemplate, PlayerShards playerShards) {
+
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.playerShards = playerShards;
+    }
+
+    @Scheduled(initialDelayString = "${player.stats.reconcile-initial-delay-ms:60000}",
+               fixedDelayString = "${player.stats.reconcile-delay-ms:600000}")
+    public void reconcile() {
+
+        boolean corrected = playerShards.onEveryShard(shard -> transactionTemplate.execute(status -> playerRepository.reconcileGameCounts()))
+                .contains(Boolean.TRUE);
+
+        if (corrected) {
+            logger.debug("PlayerStatsReconciler: player game counts corrected");
+        }
+        else {
+            logger.debug("PlayerStatsReconciler: reconcile successfully done");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package PlayerService.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Compact binary form of an ascending list of non-negative ids: the number of ids, then the first id
+ * and the difference of every following id to the one before it, each as an unsigned LEB128 varint.
+ * Ids of a player are usually close together, so most of them take one or two bytes.
+ */
+public class DeltaEncoding {
+
+    public static byte[] encode(long[] sortedIds) {
+
+        byte[] buffer = new byte[10 * (sortedIds.length + 1)];
+        int position = writeVarint(buffer, 0, sortedIds.length);
+        long previous = 0;
+
+        for (long id : sortedIds) {
+            position = writeVarint(buffer, position, id - previous);
+            previous = id;
+        }
+
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public static long[] decode(byte[] bytes) {
+
+        int[] position = {0};
+        long[] ids = new long[(int) readVarint(bytes, position)];
+        long previous = 0;
+
+        for (int i = 0; i < ids.length; i++) {
+            previous += readVarint(bytes, position);
+            ids[i] = previous;
+        }
+
+        return ids;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, long value) {
+
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+
+        return position;
+    }
+
+    private static long readVarint(byte[] bytes, int[] position) {
+
+        long value = 0;
+        int shift = 0;
+        byte current;
+
+        do {
+            current = bytes[position[0]++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((current & 0x80) != 0);
+
+        return value;
+    }
+}
@@ -2,21 +2,53 @@ package PlayerService.core;
 
 import static PlayerService.core.config.ApplicationUrls.REST_API_V1_PLAYER;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
+import PlayerService.core.config.PlayerShards;
+import PlayerService.core.domain.dto.PlayerChangeDto;
 import PlayerService.core.domain.dto.PlayerDto;
 import PlayerService.core.domain.dto.PlayerDto.PlayerDtoBuilder;
+import PlayerService.core.domain.dto.PlayerImportRowDto;
+import PlayerService.core.domain.dto.PlayerImportStatus;
+import PlayerService.core.domain.dto.PlayerMembershipSnapshotDto;
+import PlayerService.core.domain.dto.PlayerPageDto;
+import PlayerService.core.domain.dto.PlayerStatsDto;
+import PlayerService.core.domain.model.Player;
+import PlayerService.core.domain.respository.PlayerRepository;
+import PlayerService.core.domain.service.GameExistenceBatcher;
+import PlayerService.core.domain.service.GameServiceResilience;
+import PlayerService.core.domain.service.PlayerGameIndex;
+import PlayerService.core.domain.service.PlayerStatsReconciler;
 import PlayerService.core.util.CommunicationUtil;
+import PlayerService.core.util.DeltaEncoding;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
@@ -30,14 +62,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
 @Sql(scripts = {"/sql/player_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
 @Sql(scripts = {"/sql/player_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
 @RunWith(SpringRunner.class)
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "player.game-index.enabled=false",
+        "player.stats.reconcile-initial-delay-ms=3600000"
+})
 public class PlayerControllerTest {
 
     @LocalServerPort
@@ -48,6 +87,30 @@ public class PlayerControllerTest {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlayerShards playerShards;
+
+    @Autowired
+    private GameServiceResilience gameServiceResilience;
+
+    @Autowired
+    private GameExistenceBatcher gameExistenceBatcher;
+
+    @Autowired
+    private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private PlayerStatsReconciler playerStatsReconciler;
+
     HttpHeaders headers = new HttpHeaders();
 
     private MockRestServiceServer mockServer;
@@ -57,14 +120,23 @@ public class PlayerControllerTest {
             new ParameterizedTypeReference<>() {
             };
 
+    private static final ParameterizedTypeReference<List<PlayerChangeDto>> responsePlayerChangeDtoList =
+            new ParameterizedTypeReference<>() {
+            };
+
     private static final ParameterizedTypeReference<List<Long>> responseListLongs =
             new ParameterizedTypeReference<>() {
             };
 
+    private static final ParameterizedTypeReference<List<PlayerImportRowDto>> responseImportRowList =
+            new ParameterizedTypeReference<>() {
+            };
+
     @Before
     public void init() {
         testRestTemplate = new TestRestTemplate();
         mockServer = MockRestServiceServer.createServer(restTemplate);
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
     }
 
     @Test
@@ -116,6 +188,82 @@ public class PlayerControllerTest {
         assertThat(response.getStatusCodeValue()).isEqualTo(201);
     }
 
+    @Test
+    public void testShouldAskGameServiceForCborFirst() throws URISyntaxException, JsonProcessingException {
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(CommunicationUtil.createURLWithPort("game/exists"))))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.ACCEPT, startsWith(MediaType.APPLICATION_CBOR_VALUE)))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_CBOR)
+                                    .body(new CBORMapper().writeValueAsBytes(Arrays.asList(1L, 3L)))
+                );
+
+        assertThat(gameExistenceBatcher.fetchExistingGameIds(Arrays.asList(1L, 2L, 3L))).containsExactlyInAnyOrder(1L, 3L);
+        mockServer.verify();
+    }
+
+    @Test
+    public void testShouldCoalesceGameExistenceChecks() throws URISyntaxException, JsonProcessingException {
+
+        GameExistenceBatcher batcher = new GameExistenceBatcher(restTemplate, gameServiceResilience, Duration.ofMillis(50), 500, 4, true);
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(CommunicationUtil.createURLWithPort("game/exists"))))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(Arrays.asList(1L, 3L)))
+                );
+
+        try {
+            CompletableFuture<Boolean> first = batcher.submit(1L);
+            CompletableFuture<Boolean> second = batcher.submit(2L);
+            CompletableFuture<Boolean> third = batcher.submit(3L);
+
+            assertThat(first.join()).isTrue();
+            assertThat(second.join()).isFalse();
+            assertThat(third.join()).isTrue();
+            mockServer.verify();
+        }
+        finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testShouldGiveNextWindowFullLengthAfterFullBatch() throws URISyntaxException, JsonProcessingException, InterruptedException {
+
+        GameExistenceBatcher batcher = new GameExistenceBatcher(restTemplate, gameServiceResilience, Duration.ofMillis(1000), 2, 4, true);
+
+        mockServer.expect(ExpectedCount.twice(), requestTo(new URI(CommunicationUtil.createURLWithPort("game/exists"))))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(mapper.writeValueAsString(Arrays.asList(1L, 2L, 3L)))
+                );
+
+        try {
+            CompletableFuture<Boolean> first = batcher.submit(1L);
+            CompletableFuture<Boolean> second = batcher.submit(2L);
+
+            assertThat(first.join()).isTrue();
+            assertThat(second.join()).isTrue();
+
+            Thread.sleep(500);
+            CompletableFuture<Boolean> third = batcher.submit(3L);
+            // Past the end of the full batch's window, still before the end of the third's own
+            Thread.sleep(700);
+
+            assertThat(third.isDone()).isFalse();
+            assertThat(third.join()).isTrue();
+            mockServer.verify();
+        }
+        finally {
+            batcher.shutdown();
+        }
+    }
+
     @Test
     public void testShouldGetAllPlayers(){
 
@@ -128,6 +276,68 @@ public class PlayerControllerTest {
         assertThat(response.getBody().size()).isEqualTo(5);
     }
 
+    @Test
+    public void testShouldReturnNotModifiedWhilePlayersUnchanged(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<List<PlayerDto>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all"), HttpMethod.GET, entity, responsePlayerDtoList);
+        String eTag = response.getHeaders().getETag();
+
+        assertThat(eTag).isNotNull().startsWith("W/");
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(eTag);
+        HttpEntity<Void> conditionalEntity = new HttpEntity<>(null, conditionalHeaders);
+
+        ResponseEntity<List<PlayerDto>> notModified = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all"), HttpMethod.GET, conditionalEntity, responsePlayerDtoList);
+
+        assertThat(notModified.getStatusCodeValue()).isEqualTo(304);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER) + "/1", HttpMethod.DELETE, entity, Void.class);
+
+        ResponseEntity<List<PlayerDto>> modified = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all"), HttpMethod.GET, conditionalEntity, responsePlayerDtoList);
+
+        assertThat(modified.getStatusCodeValue()).isEqualTo(200);
+        assertThat(modified.getBody().size()).isEqualTo(4);
+    }
+
+    @Test
+    public void testShouldGetPlayersPage(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<PlayerPageDto> firstPage = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all/page?size=3"), HttpMethod.GET, entity, PlayerPageDto.class);
+
+        assertThat(firstPage.getStatusCodeValue()).isEqualTo(200);
+        assertThat(firstPage.getBody().getPlayers().size()).isEqualTo(3);
+        assertThat(firstPage.getBody().getNextCursor()).isEqualTo(3L);
+
+        ResponseEntity<PlayerPageDto> lastPage = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all/page?size=3&afterId=3"), HttpMethod.GET, entity, PlayerPageDto.class);
+
+        assertThat(lastPage.getStatusCodeValue()).isEqualTo(200);
+        assertThat(lastPage.getBody().getPlayers().size()).isEqualTo(2);
+        assertThat(lastPage.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testShouldStreamAllPlayers(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all/stream"), HttpMethod.GET, entity, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().split("\n")).hasSize(5);
+    }
+
     @Test
     public void testShouldGetAllPlayersByName(){
 
@@ -197,6 +407,105 @@ public class PlayerControllerTest {
         assertThat(response.getStatusCodeValue()).isEqualTo(304);
     }
 
+    @Test
+    public void testShouldRegisterPlayersInBatch(){
+
+        List<PlayerDto> playerDtos = Arrays.asList(
+                standardPlayerDtoBuilder().name("batch1").gameId(1L).build(),
+                standardPlayerDtoBuilder().name("player1").gameId(1L).build(),
+                standardPlayerDtoBuilder().name("batch1").gameId(1L).build(),
+                standardPlayerDtoBuilder().name("").gameId(2L).build());
+        HttpEntity<List<PlayerDto>> entity = new HttpEntity<>(playerDtos, headers);
+
+        ResponseEntity<List<PlayerImportRowDto>> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/registration/batch", HttpMethod.POST, entity, responseImportRowList);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).extracting(PlayerImportRowDto::getStatus).containsExactly(
+                PlayerImportStatus.CREATED, PlayerImportStatus.ALREADY_REGISTERED, PlayerImportStatus.ALREADY_REGISTERED,
+                PlayerImportStatus.INVALID);
+        assertThat(playerRepository.findGameIdsByName("batch1")).containsExactly(1L);
+    }
+
+    @Test
+    public void testShouldRegisterPlayerOnceWhenRegisteredConcurrently(){
+
+        HttpEntity<PlayerDto> entity = new HttpEntity<>(standardPlayerDtoBuilder().name("concurrent").gameId(9L).build(), headers);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<CompletableFuture<Integer>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(CompletableFuture.supplyAsync(() -> testRestTemplate.exchange(
+                    createTestURLWithPort(REST_API_V1_PLAYER) + "/registration", HttpMethod.POST, entity, PlayerDto.class)
+                    .getStatusCodeValue(), executor));
+        }
+
+        List<Integer> statuses = responses.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        executor.shutdown();
+
+        assertThat(statuses).containsOnly(201, 304);
+        assertThat(statuses).filteredOn(status -> status == 201).hasSize(1);
+        assertThat(playerRepository.findGameIdsByName("concurrent")).containsExactly(9L);
+    }
+
+    @Test
+    public void testShouldImportPlayersFromJsonArray(){
+
+        List<PlayerDto> playerDtos = Arrays.asList(
+                standardPlayerDtoBuilder().name("bulk1").gameId(1L).build(),
+                standardPlayerDtoBuilder().name("bulk1").gameId(1L).build(),
+                standardPlayerDtoBuilder().name("player1").gameId(1L).build(),
+                standardPlayerDtoBuilder().name("").gameId(2L).build(),
+                standardPlayerDtoBuilder().name("bulk2").gameId(null).build());
+        HttpEntity<List<PlayerDto>> entity = new HttpEntity<>(playerDtos, headers);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/bulk", HttpMethod.POST, entity, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(readImportRows(response.getBody())).extracting(PlayerImportRowDto::getStatus).containsExactly(
+                PlayerImportStatus.CREATED, PlayerImportStatus.DUPLICATE, PlayerImportStatus.ALREADY_REGISTERED,
+                PlayerImportStatus.INVALID, PlayerImportStatus.CREATED);
+        assertThat(playerRepository.findGameIdsByName("bulk1")).containsExactly(1L);
+    }
+
+    @Test
+    public void testShouldKeepStreamedResponsesOpenPastServletDefaultTimeout(){
+
+        // Tomcat would end an async request after 30s without an explicit timeout
+        assertThat(ReflectionTestUtils.getField(requestMappingHandlerAdapter, "asyncRequestTimeout"))
+                .isEqualTo(Duration.ofMinutes(10).toMillis());
+    }
+
+    @Test
+    public void testShouldImportPlayersFromNdjson(){
+
+        HttpHeaders ndjsonHeaders = new HttpHeaders();
+        ndjsonHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+        HttpEntity<String> entity = new HttpEntity<>("{\"name\":\"bulk1\",\"gameId\":3}\n{\"name\":\"player2\",\"gameId\":2}\n", ndjsonHeaders);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/bulk", HttpMethod.POST, entity, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(readImportRows(response.getBody())).extracting(PlayerImportRowDto::getStatus).containsExactly(
+                PlayerImportStatus.CREATED, PlayerImportStatus.ALREADY_REGISTERED);
+    }
+
+    @Test
+    public void testShouldRejectMalformedImport(){
+
+        HttpHeaders jsonHeaders = new HttpHeaders();
+        jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> entity = new HttpEntity<>("not json", jsonHeaders);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/bulk", HttpMethod.POST, entity, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(400);
+    }
+
     @Test
     public void testShouldReturnIdsByPlayerName(){
 
@@ -209,10 +518,167 @@ public class PlayerControllerTest {
         assertThat(response.getBody().size()).isEqualTo(3);
     }
 
+    @Test
+    public void testShouldReturnCborIdsByPlayerName() throws IOException {
+
+        HttpHeaders cborHeaders = new HttpHeaders();
+        cborHeaders.setAccept(Collections.singletonList(MediaType.APPLICATION_CBOR));
+        HttpEntity<Void> entity = new HttpEntity<>(null, cborHeaders);
+
+        ResponseEntity<byte[]> response = testRestTemplate.exchange(
+                createTestURLWithPort( REST_API_V1_PLAYER + "/gameIds?name={name}"), HttpMethod.GET, entity, byte[].class, "player1");
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(new CBORMapper().readValue(response.getBody(), long[].class)).containsExactly(1L, 3L, 7L);
+    }
+
+    @Test
+    public void testShouldReturnDeltaEncodedIdsByPlayerName(){
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<byte[]> response = testRestTemplate.exchange(
+                createTestURLWithPort( REST_API_V1_PLAYER + "/gameIds?name={name}&encoding=delta"), HttpMethod.GET, entity, byte[].class, "player1");
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+        assertThat(DeltaEncoding.decode(response.getBody())).containsExactly(1L, 3L, 7L);
+    }
+
+    @Test
+    public void testShouldIndexGameIdsByPlayerName(){
+
+        PlayerGameIndex playerGameIndex = new PlayerGameIndex(playerRepository, playerShards, transactionTemplate, true);
+        transactionTemplate.executeWithoutResult(status -> playerGameIndex.load());
+
+        assertThat(playerGameIndex.isReady()).isTrue();
+        assertThat(playerGameIndex.getGameIds("player1")).containsExactly(1L, 3L, 7L);
+        assertThat(playerGameIndex.getGameIds("unknown")).isEmpty();
+
+        playerRepository.save(Player.builder().name("player1").gameId(5L).build());
+        playerRepository.deleteById(1L);
+        playerGameIndex.refresh(Collections.singleton("player1"));
+
+        assertThat(playerGameIndex.getGameIds("player1")).containsExactly(3L, 5L, 7L);
+        playerRepository.deleteById(2L);
+        playerGameIndex.refresh(Collections.singleton("player2"));
+
+        // No older read is in flight, so the emptied name does not keep an entry
+        assertThat(((Map<?, ?>) ReflectionTestUtils.getField(playerGameIndex, "gameIdsByName")).containsKey("player2")).isFalse();
+
+        transactionTemplate.executeWithoutResult(status -> playerGameIndex.load());
+
+        assertThat(playerGameIndex.getGameIds("player2")).isEmpty();
+    }
+
+    @Test
+    public void testShouldExposePrometheusMetrics() throws URISyntaxException {
+
+        PlayerDto playerDto = standardPlayerDtoBuilder().build();
+        HttpEntity<PlayerDto> entity = new HttpEntity<>(playerDto, headers);
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(CommunicationUtil.createURLWithPort("game/1"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                );
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER), HttpMethod.POST, entity, PlayerDto.class);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort("/actuator/prometheus"), HttpMethod.GET, null, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket{application=\"PlayerService\"")
+                .contains("uri=\"/api/v1/player\"")
+                .contains("http_client_requests_seconds_bucket{")
+                .contains("uri=\"/api/v1/game/{gameId}\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("repository=\"PlayerRepository\"")
+                .contains("hikaricp_connections_active{application=\"PlayerService\",pool=\"PlayerServicePool\"");
+    }
+
+    @Test
+    public void testShouldPublishPlayerChanges() {
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<PlayerMembershipSnapshotDto> snapshot = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/memberships", HttpMethod.GET, entity, PlayerMembershipSnapshotDto.class);
+
+        assertThat(snapshot.getStatusCodeValue()).isEqualTo(200);
+        assertThat(snapshot.getBody().getPlayers()).hasSize(5);
+        Long sequence = snapshot.getBody().getSequence();
+
+        PlayerDto playerDto = standardPlayerDtoBuilder().gameId(9L).name("player9").build();
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER) + "/registration", HttpMethod.POST,
+                                  new HttpEntity<>(playerDto, headers), Void.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER) + "/1", HttpMethod.DELETE, entity, Void.class);
+
+        ResponseEntity<List<PlayerChangeDto>> changes = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/changes?after=" + sequence, HttpMethod.GET, entity, responsePlayerChangeDtoList);
+
+        assertThat(changes.getStatusCodeValue()).isEqualTo(200);
+        assertThat(changes.getBody()).containsExactly(
+                new PlayerChangeDto(sequence + 1, "player9", 9L, true),
+                new PlayerChangeDto(sequence + 2, "player1", 1L, false));
+        assertThat(snapshot.getBody().getEpochs()).hasSize(1).doesNotContainNull();
+        assertThat(changes.getHeaders().getFirst(PlayerChangeDto.EPOCH_HEADER)).isEqualTo(snapshot.getBody().getEpochs().get(0));
+        assertThat(changes.getHeaders().getFirst(PlayerChangeDto.LAST_SEQUENCE_HEADER)).isEqualTo(String.valueOf(sequence + 2));
+    }
+
+    @Test
+    public void testShouldGetPlayerStatsFromCounters() {
+
+        HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+        playerStatsReconciler.reconcile();
+
+        assertThat(getPlayerStats("player1").getGameCount()).isEqualTo(3);
+
+        PlayerDto playerDto = standardPlayerDtoBuilder().gameId(9L).name("player1").build();
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER) + "/registration", HttpMethod.POST,
+                                  new HttpEntity<>(playerDto, headers), Void.class);
+
+        assertThat(getPlayerStats("player1").getGameCount()).isEqualTo(4);
+
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER) + "/1", HttpMethod.DELETE, entity, Void.class);
+        testRestTemplate.exchange(createTestURLWithPort(REST_API_V1_PLAYER) + "/2", HttpMethod.DELETE, entity, Void.class);
+
+        assertThat(getPlayerStats("player1").getGameCount()).isEqualTo(3);
+        assertThat(getPlayerStats("player2").getGameCount()).isZero();
+        assertThat(getPlayerStats("unknown").getGameCount()).isZero();
+    }
+
+    private PlayerStatsDto getPlayerStats(String name) {
+
+        ResponseEntity<PlayerStatsDto> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/" + name + "/stats", HttpMethod.GET, new HttpEntity<>(null, headers),
+                PlayerStatsDto.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+
+        return response.getBody();
+    }
+
     private String createTestURLWithPort(String uri) {
         return "http://localhost:" + port + uri;
     }
 
+    /**
+     * Parses the newline delimited rows of a {@code /bulk} response.
+     */
+    public static List<PlayerImportRowDto> readImportRows(String body) {
+
+        try {
+            return new ObjectMapper().readerFor(PlayerImportRowDto.class).<PlayerImportRowDto>readValues(body).readAll();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static PlayerDtoBuilder standardPlayerDtoBuilder() {
 
         return PlayerDto.builder()
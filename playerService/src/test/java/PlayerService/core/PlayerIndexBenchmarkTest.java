@@ -0,0 +1,108 @@
+package PlayerService.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Seeds the player table and compares query plan and latency of the name lookups with and
+ * without the pk_player unique index on (name, game_id), which already covers
+ * getGameIdsByPlayerName. Seed size is set with -Dbenchmark.seed-size.
+ *
+ * Excluded from {@code test}, it drops and recreates indexes other suites rely on. Run it with
+ * {@code ./gradlew indexBenchmark}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PlayerIndexBenchmarkTest {
+
+    private static final int SEED_SIZE = Integer.getInteger("benchmark.seed-size", 20000);
+
+    private static final int ITERATIONS = 200;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void seed() {
+
+        List<Object[]> players = new ArrayList<>();
+        for (int i = 0; i < SEED_SIZE; i++) {
+            players.add(new Object[]{"player" + (i % 1000), (long) i});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO player (name, game_id) VALUES (?, ?)", players);
+    }
+
+    @After
+    public void clean() {
+
+        jdbcTemplate.execute("DELETE FROM player");
+    }
+
+    @Test
+    public void testShouldCoverGameIdsByNameWithUniqueIndex() {
+
+        compare("SELECT game_id FROM player WHERE name = 'player42'");
+    }
+
+    @Test
+    public void testShouldUseUniqueIndexForName() {
+
+        compare("SELECT id, name, game_id FROM player WHERE name = 'player42'");
+    }
+
+    private void compare(String query) {
+
+        time(query);
+
+        String indexedPlan = explain(query);
+        long indexedNanos = time(query);
+
+        String scanPlan;
+        long scanNanos;
+
+        jdbcTemplate.execute("ALTER TABLE player DROP CONSTRAINT pk_player");
+        try {
+            scanPlan = explain(query);
+            scanNanos = time(query);
+        }
+        finally {
+            jdbcTemplate.execute("ALTER TABLE player ADD CONSTRAINT pk_player UNIQUE (name, game_id)");
+        }
+
+        logger.info("{} rows, {}\n  without index: {} us/query, plan: {}\n  with pk_player: {} us/query, plan: {}",
+                    SEED_SIZE, query, scanNanos / 1000, scanPlan, indexedNanos / 1000, indexedPlan);
+
+        assertThat(indexedPlan).containsIgnoringCase("pk_player");
+        assertThat(scanPlan).doesNotContainIgnoringCase("pk_player");
+    }
+
+    private String explain(String query) {
+
+        return jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+    }
+
+    private long time(String query) {
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            jdbcTemplate.queryForList(query);
+        }
+
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,190 @@
+package PlayerService.core;
+
+import static PlayerService.core.config.ApplicationUrls.REST_API_V1_PLAYER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+import PlayerService.core.domain.dto.PlayerChangeDto;
+import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.dto.PlayerImportRowDto;
+import PlayerService.core.domain.dto.PlayerImportStatus;
+import PlayerService.core.domain.dto.PlayerStatsDto;
+import PlayerService.core.domain.respository.PlayerRepository;
+import PlayerService.core.domain.service.PlayerStatsReconciler;
+import PlayerService.core.util.CommunicationUtil;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Runs the repository paths that depend on the database dialect against a local embedded Postgres
+ * with the {@code postgres} profile. Started by {@code gradle postgresTest}, not by {@code test}.
+ */
+@Sql(scripts = {"/sql/player_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/sql/player_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+@RunWith(SpringRunner.class)
+@ActiveProfiles("postgres")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "player.game-index.enabled=false",
+        "player.stats.reconcile-initial-delay-ms=3600000",
+        "spring.liquibase.parameters.id.sequence.start=1000"
+})
+public class PlayerPostgresTest {
+
+    private static final EmbeddedPostgres postgres = startPostgres();
+
+    private static final ParameterizedTypeReference<List<PlayerChangeDto>> responsePlayerChangeDtoList =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlayerStatsReconciler playerStatsReconciler;
+
+    private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    private MockRestServiceServer mockServer;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterClass
+    public static void stopPostgres() throws IOException {
+
+        postgres.close();
+    }
+
+    @Before
+    public void init() {
+
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+    }
+
+    @Test
+    public void testShouldCreatePlayerWithSequenceId() throws URISyntaxException {
+
+        mockServer.expect(ExpectedCount.once(), requestTo(new URI(CommunicationUtil.createURLWithPort("game/1"))))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                );
+
+        PlayerDto playerDto = PlayerControllerTest.standardPlayerDtoBuilder().build();
+        ResponseEntity<Void> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER), HttpMethod.POST, new HttpEntity<>(playerDto), Void.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(201);
+        assertThat(playerRepository.findDistinctByName("PLAYER_TEST").getId()).isGreaterThan(5L);
+    }
+
+    @Test
+    public void testShouldRegisterPlayerOnlyOnce() {
+
+        PlayerDto playerDto = PlayerControllerTest.standardPlayerDtoBuilder().name("player9").gameId(9L).build();
+
+        ResponseEntity<Void> created = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/registration", HttpMethod.POST, new HttpEntity<>(playerDto), Void.class);
+        ResponseEntity<Void> repeated = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/registration", HttpMethod.POST, new HttpEntity<>(playerDto), Void.class);
+
+        assertThat(created.getStatusCodeValue()).isEqualTo(201);
+        assertThat(repeated.getStatusCodeValue()).isEqualTo(304);
+
+        ResponseEntity<List<PlayerChangeDto>> changes = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/changes?after=0", HttpMethod.GET, null, responsePlayerChangeDtoList);
+
+        assertThat(changes.getBody()).extracting(PlayerChangeDto::getName).containsExactly("player9");
+    }
+
+    @Test
+    public void testShouldImportPlayersInBatches() {
+
+        List<PlayerDto> playerDtos = Arrays.asList(
+                PlayerControllerTest.standardPlayerDtoBuilder().name("bulk1").gameId(1L).build(),
+                PlayerControllerTest.standardPlayerDtoBuilder().name("bulk1").gameId(1L).build(),
+                PlayerControllerTest.standardPlayerDtoBuilder().name("player1").gameId(1L).build(),
+                PlayerControllerTest.standardPlayerDtoBuilder().name("bulk2").gameId(2L).build());
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/bulk", HttpMethod.POST, new HttpEntity<>(playerDtos), String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(PlayerControllerTest.readImportRows(response.getBody())).extracting(PlayerImportRowDto::getStatus).containsExactly(
+                PlayerImportStatus.CREATED, PlayerImportStatus.DUPLICATE, PlayerImportStatus.ALREADY_REGISTERED,
+                PlayerImportStatus.CREATED);
+        assertThat(playerRepository.findGameIdsByName("bulk2")).containsExactly(2L);
+    }
+
+    @Test
+    public void testShouldReconcilePlayerGameCounts() {
+
+        playerStatsReconciler.reconcile();
+
+        PlayerDto playerDto = PlayerControllerTest.standardPlayerDtoBuilder().name("player1").gameId(9L).build();
+        testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/registration", HttpMethod.POST, new HttpEntity<>(playerDto), Void.class);
+
+        ResponseEntity<PlayerStatsDto> stats = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER) + "/player1/stats", HttpMethod.GET, null, PlayerStatsDto.class);
+
+        assertThat(stats.getStatusCodeValue()).isEqualTo(200);
+        assertThat(stats.getBody().getGameCount()).isEqualTo(4);
+    }
+
+    private String createTestURLWithPort(String uri) {
+
+        return "http://localhost:" + port + uri;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+
+        try {
+            return EmbeddedPostgres.start();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package PlayerService.core;
+
+import static PlayerService.core.config.ApplicationUrls.REST_API_V1_PLAYER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.service.GameServiceResilience;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Registers players against a stub GameService on its configured port that injects failures.
+ */
+@Sql(scripts = {"/sql/player_before.sql"}, executionPhase = ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/sql/player_after.sql"}, executionPhase = ExecutionPhase.AFTER_TEST_METHOD)
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "player.game-index.enabled=false",
+        "resilience4j.circuitbreaker.instances.gameService.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.gameService.minimum-number-of-calls=4"
+})
+public class PlayerResilienceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer gameService;
+
+    @Before
+    public void init() throws IOException {
+
+        gameService = HttpServer.create(new InetSocketAddress(8080), 0);
+        gameService.createContext("/api/v1/game/", this::fail);
+        gameService.start();
+    }
+
+    @After
+    public void shutdown() {
+
+        gameService.stop(0);
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
+    @Test
+    public void testShouldStopCallingGameServiceOnceCircuitIsOpen() {
+
+        for (int i = 0; i < 5; i++) {
+            HttpEntity<PlayerDto> entity = new HttpEntity<>(PlayerDto.builder().name("RESILIENCE_" + i).gameId(1L).build());
+
+            ResponseEntity<Void> response = testRestTemplate.exchange(
+                    "http://localhost:" + port + REST_API_V1_PLAYER, HttpMethod.POST, entity, Void.class);
+
+            assertThat(response.getStatusCodeValue()).isEqualTo(201);
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker(GameServiceResilience.GAME_SERVICE).getState()).isEqualTo(State.OPEN);
+        assertThat(requests.get()).isEqualTo(4);
+    }
+
+    private void fail(HttpExchange exchange) throws IOException {
+
+        requests.incrementAndGet();
+        exchange.sendResponseHeaders(500, -1);
+        exchange.close();
+    }
+}
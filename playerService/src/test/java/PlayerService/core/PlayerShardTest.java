@@ -0,0 +1,222 @@
+package PlayerService.core;
+
+import static PlayerService.core.config.ApplicationUrls.REST_API_V1_PLAYER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import PlayerService.core.config.PlayerShardConfig;
+import PlayerService.core.config.PlayerShards;
+import PlayerService.core.domain.dto.PlayerChangeDto;
+import PlayerService.core.domain.dto.PlayerDto;
+import PlayerService.core.domain.dto.PlayerImportRowDto;
+import PlayerService.core.domain.dto.PlayerImportStatus;
+import PlayerService.core.domain.dto.PlayerMembershipSnapshotDto;
+import PlayerService.core.domain.dto.PlayerPageDto;
+import PlayerService.core.domain.dto.PlayerStatsDto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Stores players in three embedded H2 shards and checks that single player paths stay on the
+ * shard of the name while list paths gather every shard.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "player.shards.enabled=true",
+        "player.shards.urls=jdbc:h2:mem:player-shard-0;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:player-shard-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:player-shard-2;DB_CLOSE_DELAY=-1",
+        "player.stats.reconcile-initial-delay-ms=3600000"
+})
+public class PlayerShardTest {
+
+    private static final ParameterizedTypeReference<List<PlayerDto>> responsePlayerDtoList =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final ParameterizedTypeReference<List<PlayerChangeDto>> responsePlayerChangeDtoList =
+            new ParameterizedTypeReference<>() {
+            };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PlayerShards playerShards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    @Test
+    public void testShouldStoreEveryPlayerOnTheShardOfItsName() {
+
+        List<PlayerDto> players = importPlayers("stored", 12, 3);
+
+        for (int shard = 0; shard < playerShards.getShardCount(); shard++) {
+            List<String> names = playerShards.onShard(shard, () -> jdbcTemplate.queryForList(
+                    "SELECT DISTINCT name FROM player WHERE name LIKE 'stored%'", String.class));
+            int expectedShard = shard;
+
+            assertThat(names).isNotEmpty().allMatch(name -> playerShards.shardOf(name) == expectedShard);
+        }
+
+        ResponseEntity<List<PlayerDto>> all = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/all"), HttpMethod.GET, null, responsePlayerDtoList);
+
+        assertThat(all.getBody()).containsAll(players);
+
+        ResponseEntity<List<PlayerDto>> byName = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "?name={name}"), HttpMethod.GET, null, responsePlayerDtoList, "stored5");
+        ResponseEntity<long[]> gameIds = testRestTemplate.getForEntity(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/gameIds?name={name}"), long[].class, "stored5");
+        ResponseEntity<PlayerStatsDto> stats = testRestTemplate.getForEntity(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/{name}/stats"), PlayerStatsDto.class, "stored5");
+
+        assertThat(byName.getBody()).extracting(PlayerDto::getGameId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(gameIds.getBody()).containsExactly(1L, 2L, 3L);
+        assertThat(stats.getBody().getGameCount()).isEqualTo(3L);
+    }
+
+    @Test
+    public void testShouldPageAndDeleteAcrossShards() {
+
+        List<PlayerDto> players = importPlayers("paged", 9, 2);
+        List<Long> cursors = new ArrayList<>();
+        List<PlayerDto> pagedPlayers = new ArrayList<>();
+        Long afterId = 0L;
+
+        while (afterId != null) {
+            ResponseEntity<PlayerPageDto> page = testRestTemplate.getForEntity(
+                    createTestURLWithPort(REST_API_V1_PLAYER + "/all/page?afterId={afterId}&size=4"), PlayerPageDto.class, afterId);
+            pagedPlayers.addAll(page.getBody().getPlayers());
+            afterId = page.getBody().getNextCursor();
+            cursors.add(afterId);
+        }
+
+        List<Long> ids = playerShards.onEveryShard(shard -> jdbcTemplate.queryForList("SELECT id FROM player", Long.class))
+                .stream().flatMap(List::stream).collect(Collectors.toList());
+
+        assertThat(cursors.subList(0, cursors.size() - 1)).isSorted().doesNotHaveDuplicates();
+        assertThat(pagedPlayers).containsAll(players).hasSameSizeAs(ids);
+        assertThat(ids).doesNotHaveDuplicates();
+
+        Long deletedId = playerShards.onShardOf("paged4", () -> jdbcTemplate.queryForObject(
+                "SELECT id FROM player WHERE name = 'paged4' AND game_id = 1", Long.class));
+
+        ResponseEntity<HttpStatus> response = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/{id}"), HttpMethod.DELETE, null, HttpStatus.class, deletedId);
+        ResponseEntity<HttpStatus> repeated = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/{id}"), HttpMethod.DELETE, null, HttpStatus.class, deletedId);
+        ResponseEntity<List<PlayerDto>> byName = testRestTemplate.exchange(
+                createTestURLWithPort(REST_API_V1_PLAYER + "?name={name}"), HttpMethod.GET, null, responsePlayerDtoList, "paged4");
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(repeated.getStatusCodeValue()).isEqualTo(404);
+        assertThat(byName.getBody()).extracting(PlayerDto::getGameId).containsExactly(2L);
+    }
+
+    @Test
+    public void testShouldServeChangesOfEveryShard() {
+
+        importPlayers("changed", 6, 1);
+
+        ResponseEntity<PlayerMembershipSnapshotDto> snapshot = testRestTemplate.getForEntity(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/memberships"), PlayerMembershipSnapshotDto.class);
+
+        assertThat(snapshot.getBody().getSequences()).hasSize(3).allMatch(sequence -> sequence > 0);
+        assertThat(snapshot.getBody().getEpochs()).hasSize(3).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(snapshot.getBody().getSequence()).isEqualTo(snapshot.getBody().getSequences().get(0));
+
+        List<String> names = new ArrayList<>();
+
+        for (int shard = 0; shard < playerShards.getShardCount(); shard++) {
+            ResponseEntity<List<PlayerChangeDto>> changes = testRestTemplate.exchange(
+                    createTestURLWithPort(REST_API_V1_PLAYER + "/changes?after=0&shard={shard}"), HttpMethod.GET, null,
+                    responsePlayerChangeDtoList, shard);
+            int expectedShard = shard;
+
+            assertThat(changes.getBody()).extracting(PlayerChangeDto::getSequence).isSorted();
+            assertThat(changes.getBody()).allMatch(change -> playerShards.shardOf(change.getName()) == expectedShard);
+            changes.getBody().forEach(change -> names.add(change.getName()));
+        }
+
+        ResponseEntity<String> unknownShard = testRestTemplate.getForEntity(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/changes?after=0&shard=3"), String.class);
+
+        assertThat(names).contains("changed0", "changed1", "changed2", "changed3", "changed4", "changed5");
+        assertThat(unknownShard.getStatusCodeValue()).isEqualTo(400);
+    }
+
+    @Test
+    public void testShouldRejectQueryWithoutSelectedShard() {
+
+        assertThatThrownBy(() -> jdbcTemplate.queryForList("SELECT id FROM player", Long.class))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testShouldRejectEmptyShardUrls() {
+
+        assertThatThrownBy(() -> new PlayerShardConfig().dataSource(new DataSourceProperties(), null, Collections.emptyList()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("player.shards.urls");
+    }
+
+    @Test
+    public void testShouldRunShardWorkOnVirtualThreadsOnlyWhenEnabled() {
+
+        PlayerShards platformShards = new PlayerShards(true, Arrays.asList("a", "b"), false);
+        PlayerShards virtualShards = new PlayerShards(true, Arrays.asList("a", "b"), true);
+
+        try {
+            assertThat(platformShards.onEveryShard(shard -> Thread.currentThread().isVirtual())).containsExactly(false, false);
+            assertThat(virtualShards.onEveryShard(shard -> Thread.currentThread().isVirtual())).containsExactly(true, true);
+        }
+        finally {
+            platformShards.close();
+            virtualShards.close();
+        }
+    }
+
+    private List<PlayerDto> importPlayers(String prefix, int nameCount, int gamesPerName) {
+
+        List<PlayerDto> players = new ArrayList<>();
+
+        for (int name = 0; name < nameCount; name++) {
+            for (long gameId = 1; gameId <= gamesPerName; gameId++) {
+                players.add(new PlayerDto(prefix + name, gameId));
+            }
+        }
+
+        ResponseEntity<String> result = testRestTemplate.postForEntity(
+                createTestURLWithPort(REST_API_V1_PLAYER + "/bulk"), new HttpEntity<>(players), String.class);
+
+        assertThat(PlayerControllerTest.readImportRows(result.getBody())).extracting(PlayerImportRowDto::getStatus)
+                .hasSize(players.size()).containsOnly(PlayerImportStatus.CREATED);
+
+        return players;
+    }
+
+    private String createTestURLWithPort(String uri) {
+
+        return "http://localhost:" + port + uri;
+    }
+}
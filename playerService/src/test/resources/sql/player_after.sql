@@ -1 +1,3 @@
+DELETE FROM player_game_count;
+DELETE FROM player_change;
 DELETE FROM player;
\ No newline at end of file